@@ -0,0 +1,29 @@
+package ru.practicum.ewm.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.ewm.comment_service.dto.CommentCountDto;
+import ru.practicum.ewm.service.CommentService;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/comments")
+public class InternalCommentController {
+
+    private final CommentService commentService;
+
+    @GetMapping("/counts")
+    public ResponseEntity<List<CommentCountDto>> getCommentCounts(@RequestParam List<Long> eventIds) {
+        log.debug("Внутренний контроллер: количество комментариев для {} событий", eventIds.size());
+
+        return ResponseEntity.ok(commentService.getCommentCounts(eventIds));
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.ewm.controller;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -7,8 +9,10 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.ewm.dto.CommentPublicDto;
+import ru.practicum.ewm.dto.KeysetPage;
 import ru.practicum.ewm.service.CommentService;
 
 import java.util.List;
@@ -23,10 +27,18 @@ public class PublicCommentController {
     private final CommentService commentService;
 
     @GetMapping
-    public ResponseEntity<List<CommentPublicDto>> getComments(@PathVariable Long eventId) {
-        log.info("Метод getComments(); eventId={}", eventId);
+    public ResponseEntity<List<CommentPublicDto>> getComments(@PathVariable Long eventId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "100")
+                                                              @Positive @Max(1000) int size) {
+        log.info("Метод getComments(); eventId={}, cursor={}, size={}", eventId, cursor, size);
 
-        List<CommentPublicDto> result = commentService.getAllBy(eventId);
-        return ResponseEntity.ok(result);
+        KeysetPage<CommentPublicDto> result = commentService.getAllBy(eventId, cursor, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.nextCursor() != null) {
+            response.header(KeysetPage.NEXT_CURSOR_HEADER, result.nextCursor());
+        }
+        return response.body(result.content());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package ru.practicum.ewm.dto;
+
+import ru.practicum.ewm.user_service.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Позиция keyset-пагинации: (publishedOn, id) последнего комментария страницы.
+ * Клиенту отдаётся в виде непрозрачной base64url-строки.
+ */
+public record CommentCursor(Instant publishedOn, Long id) {
+
+    private static final String SEPARATOR = ":";
+
+    public String encode() {
+        String raw = publishedOn.getEpochSecond() + SEPARATOR + publishedOn.getNano() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CommentCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new BadRequestException("Некорректный cursor={}", cursor);
+            }
+            Instant publishedOn = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new CommentCursor(publishedOn, Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Некорректный cursor={}", cursor);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.ewm.dto;
+
+import java.util.List;
+
+// nextCursor == null — следующей страницы нет
+public record KeysetPage<T>(List<T> content, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+}
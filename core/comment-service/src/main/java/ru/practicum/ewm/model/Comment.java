@@ -6,7 +6,9 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments",
+        indexes = @Index(name = "idx_comments_event_state_published",
+                columnList = "event_id, state, published_on, id"))
 @Getter
 @Setter
 @Builder
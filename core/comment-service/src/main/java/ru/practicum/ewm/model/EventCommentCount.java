@@ -0,0 +1,27 @@
+package ru.practicum.ewm.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Счётчики комментариев события. Поддерживаются CommentServiceImpl при добавлении, удалении и скрытии.
+ */
+@Entity
+@Table(name = "event_comment_counts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class EventCommentCount {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "public_count", nullable = false)
+    private Long publicCount;
+
+    @Column(name = "hidden_count", nullable = false)
+    private Long hiddenCount;
+}
@@ -1,17 +1,37 @@
 package ru.practicum.ewm.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewm.model.Comment;
+import ru.practicum.ewm.model.CommentState;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findAllByEventIdAndAuthorId(Long eventId, Long userId);
 
-    List<Comment> findByEventId(Long eventId);
+    Slice<Comment> findByEventIdAndStateOrderByPublishedOnAscIdAsc(Long eventId, CommentState state,
+                                                                   Pageable pageable);
+
+    @Query("SELECT c FROM Comment c " +
+            "WHERE c.eventId = :eventId AND c.state = :state " +
+            "AND (c.publishedOn > :publishedOn OR (c.publishedOn = :publishedOn AND c.id > :id)) " +
+            "ORDER BY c.publishedOn, c.id")
+    Slice<Comment> findPageAfter(Long eventId, CommentState state, Instant publishedOn, Long id, Pageable pageable);
+
+    // Смена состояния и удаление читают комментарий под блокировкой строки: параллельные вызовы
+    // видят состояние друг после друга, и счётчики event_comment_counts меняются один раз
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Comment> findWithLockById(Long id);
 
     boolean existsByIdAndEventId(Long id, Long eventId);
 
@@ -0,0 +1,26 @@
+package ru.practicum.ewm.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.model.EventCommentCount;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventCommentCountRepository extends JpaRepository<EventCommentCount, Long> {
+
+    // Одно атомарное изменение строки: параллельные добавления и удаления не теряют друг друга.
+    // Уменьшение всегда следует за увеличением того же счётчика, поэтому значение не уходит ниже нуля
+    @Modifying
+    @Query(value = "INSERT INTO event_comment_counts (event_id, public_count, hidden_count) " +
+            "VALUES (:eventId, :publicDelta, :hiddenDelta) " +
+            "ON CONFLICT (event_id) DO UPDATE SET " +
+            "public_count = event_comment_counts.public_count + :publicDelta, " +
+            "hidden_count = event_comment_counts.hidden_count + :hiddenDelta", nativeQuery = true)
+    void adjust(Long eventId, long publicDelta, long hiddenDelta);
+
+    List<EventCommentCount> findAllByEventIdIn(Collection<Long> eventIds);
+}
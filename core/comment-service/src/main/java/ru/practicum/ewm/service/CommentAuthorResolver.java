@@ -0,0 +1,65 @@
+package ru.practicum.ewm.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.user_service.client.UserServiceClient;
+import ru.practicum.ewm.user_service.dto.UserDto;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Имена авторов комментариев. Недавние авторы хранятся в LRU-кэше,
+ * остальные запрашиваются в user-service одним вызовом на страницу.
+ */
+@Slf4j
+@Component
+public class CommentAuthorResolver {
+
+    private final UserServiceClient userServiceClient;
+
+    private final Cache<Long, String> names;
+
+    public CommentAuthorResolver(UserServiceClient userServiceClient,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${comment-authors.cache.maximum-size:10000}") long maximumSize,
+                                 @Value("${comment-authors.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.userServiceClient = userServiceClient;
+        this.names = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, names, "comment-authors");
+    }
+
+    public Map<Long, String> getNames(Collection<Long> authorIds) {
+        Set<Long> ids = new HashSet<>(authorIds);
+        ids.remove(null);
+
+        Map<Long, String> result = new HashMap<>(names.getAllPresent(ids));
+        ids.removeAll(result.keySet());
+        if (ids.isEmpty()) {
+            return result;
+        }
+
+        try {
+            List<UserDto> users = userServiceClient.getUsersByIds(List.copyOf(ids));
+            if (users != null) {
+                for (UserDto user : users) {
+                    names.put(user.getId(), user.getName());
+                    result.put(user.getId(), user.getName());
+                }
+            }
+        } catch (Exception e) {
+            // Комментарии отдаются и без имён авторов
+            log.warn("Не удалось получить авторов комментариев {}; message={}", ids, e.getMessage());
+        }
+        return result;
+    }
+}
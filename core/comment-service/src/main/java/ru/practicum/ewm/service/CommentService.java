@@ -1,7 +1,9 @@
 package ru.practicum.ewm.service;
 
+import ru.practicum.ewm.comment_service.dto.CommentCountDto;
 import ru.practicum.ewm.dto.CommentFullDto;
 import ru.practicum.ewm.dto.CommentPublicDto;
+import ru.practicum.ewm.dto.KeysetPage;
 import ru.practicum.ewm.dto.NewCommentDto;
 import ru.practicum.ewm.dto.UpdCommentDto;
 
@@ -9,7 +11,7 @@ import java.util.List;
 
 public interface CommentService {
 
-    List<CommentPublicDto> getAllBy(Long eventId);
+    KeysetPage<CommentPublicDto> getAllBy(Long eventId, String cursor, int size);
 
     List<CommentFullDto> getAllBy(Long userId, Long eventId);
 
@@ -19,5 +21,7 @@ public interface CommentService {
 
     void delete(Long userId, Long commentId);
 
+    List<CommentCountDto> getCommentCounts(List<Long> eventIds);
+
     CommentFullDto update(Long userId, Long commentId, UpdCommentDto updDto);
 }
\ No newline at end of file
@@ -2,9 +2,16 @@ package ru.practicum.ewm.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.comment_service.dto.CommentCountDto;
+import ru.practicum.ewm.dto.CommentCursor;
 import ru.practicum.ewm.dto.CommentFullDto;
 import ru.practicum.ewm.dto.CommentPublicDto;
+import ru.practicum.ewm.dto.KeysetPage;
 import ru.practicum.ewm.dto.NewCommentDto;
 import ru.practicum.ewm.dto.UpdCommentDto;
 import ru.practicum.ewm.event_service.client.EventServiceClient;
@@ -13,26 +20,36 @@ import ru.practicum.ewm.mapper.CommentMapper;
 import ru.practicum.ewm.model.Comment;
 import ru.practicum.ewm.model.CommentState;
 import ru.practicum.ewm.repository.CommentRepository;
+import ru.practicum.ewm.repository.EventCommentCountRepository;
 import ru.practicum.ewm.user_service.client.UserServiceClient;
 import ru.practicum.ewm.user_service.dto.UserDto;
+import ru.practicum.ewm.user_service.exception.BadRequestException;
 import ru.practicum.ewm.user_service.exception.ConflictException;
 import ru.practicum.ewm.user_service.exception.NotFoundException;
 
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
 
+    // Ограничение длины списка ids в query-строке и размера IN-запроса
+    private static final int MAX_COUNTS_EVENT_IDS = 1000;
+
     private final UserServiceClient userServiceClient;
     private final EventServiceClient eventServiceClient;
     private final CommentRepository commentRepository;
+    private final EventCommentCountRepository eventCommentCountRepository;
 
     private final CommentMapper commentMapper;
 
+    private final CommentAuthorResolver commentAuthorResolver;
+
     // Admin API:
     @Override
+    @Transactional
     public CommentFullDto hide(Long eventId, Long commentId, boolean published) {
         log.info("Метод hide(); eventId={}; commentId={}", eventId, commentId);
 
@@ -41,8 +58,9 @@ public class CommentServiceImpl implements CommentService {
                     eventId, commentId);
         }
 
-        Comment comment = commentRepository.findById(commentId)
+        Comment comment = commentRepository.findWithLockById(commentId)
                 .orElseThrow(() -> new NotFoundException("Comment id={} не найден", commentId));
+        CommentState previous = comment.getState();
         if (published) {
             comment.setState(CommentState.PUBLIC);
         } else {
@@ -50,25 +68,52 @@ public class CommentServiceImpl implements CommentService {
         }
         comment = commentRepository.save(comment);
 
+        if (previous != comment.getState()) {
+            this.adjustCount(eventId, previous, -1);
+            this.adjustCount(eventId, comment.getState(), 1);
+        }
+
         return commentMapper.toFullDto(comment);
     }
 
 
     // Public API:
     @Override
-    public List<CommentPublicDto> getAllBy(Long eventId) {
-        log.info("Метод getAllBy(); eventId = {}", eventId);
-
-        List<Comment> comments = commentRepository.findByEventId(eventId);
-
-        return comments.stream()
-                .map(commentMapper::toPublicDto)
+    public KeysetPage<CommentPublicDto> getAllBy(Long eventId, String cursor, int size) {
+        log.info("Метод getAllBy(); eventId = {}, cursor={}, size={}", eventId, cursor, size);
+
+        CommentCursor after = CommentCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Comment> comments = after == null
+                ? commentRepository.findByEventIdAndStateOrderByPublishedOnAscIdAsc(eventId, CommentState.PUBLIC,
+                        pageable)
+                : commentRepository.findPageAfter(eventId, CommentState.PUBLIC, after.publishedOn(), after.id(),
+                        pageable);
+
+        Map<Long, String> authorNames = commentAuthorResolver.getNames(comments.stream()
+                .map(Comment::getAuthorId)
+                .toList());
+
+        List<CommentPublicDto> dtos = comments.stream()
+                .map(comment -> {
+                    CommentPublicDto dto = commentMapper.toPublicDto(comment);
+                    dto.setAuthorName(authorNames.get(comment.getAuthorId()));
+                    return dto;
+                })
                 .toList();
+
+        String nextCursor = null;
+        if (comments.hasNext()) {
+            Comment last = comments.getContent().getLast();
+            nextCursor = new CommentCursor(last.getPublishedOn(), last.getId()).encode();
+        }
+        return new KeysetPage<>(dtos, nextCursor);
     }
 
 
     // Private API:
     @Override
+    @Transactional
     public CommentFullDto add(NewCommentDto dto, Long eventId, Long userId) {
         log.info("Метод add(); eventId={}, userId={}; dto={}", eventId, userId, dto);
 
@@ -79,11 +124,15 @@ public class CommentServiceImpl implements CommentService {
         }
 
         UserDto userDto = userServiceClient.getUserById(userId);
+        if (userDto == null) {
+            throw new NotFoundException("User id={}, не существует", userId);
+        }
 
         Comment comment = commentMapper.toEntity(dto);
         comment.setAuthorId(userDto.getId());
         comment.setEventId(eventId);
         comment = commentRepository.save(comment);
+        this.adjustCount(eventId, comment.getState(), 1);
 
         return commentMapper.toFullDto(comment);
     }
@@ -107,12 +156,34 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
+    @Transactional
     public void delete(Long userId, Long commentId) {
         log.info("Метод delete(); userId={}, commentId={}", userId, commentId);
 
         this.checkExistsUserAndComment(userId, commentId);
 
-        commentRepository.deleteById(commentId);
+        Comment comment = commentRepository.findWithLockById(commentId)
+                .orElseThrow(() -> new NotFoundException("Comment id={} не найден", commentId));
+        commentRepository.delete(comment);
+        this.adjustCount(comment.getEventId(), comment.getState(), -1);
+    }
+
+    @Override
+    public List<CommentCountDto> getCommentCounts(List<Long> eventIds) {
+        log.debug("Метод getCommentCounts(); eventIds={}", eventIds);
+
+        if (eventIds.size() > MAX_COUNTS_EVENT_IDS) {
+            throw new BadRequestException("Не более {} eventIds за запрос, передано {}",
+                    MAX_COUNTS_EVENT_IDS, eventIds.size());
+        }
+
+        return eventCommentCountRepository.findAllByEventIdIn(eventIds).stream()
+                .map(count -> CommentCountDto.builder()
+                        .eventId(count.getEventId())
+                        .publicCount(count.getPublicCount())
+                        .hiddenCount(count.getHiddenCount())
+                        .build())
+                .toList();
     }
 
     @Override
@@ -121,7 +192,8 @@ public class CommentServiceImpl implements CommentService {
 
         this.checkExistsUserAndComment(userId, commentId);
 
-        Comment comment = commentRepository.findById(commentId).get();
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new NotFoundException("Comment id={} не найден", commentId));
         commentMapper.updateFromDto(updDto, comment);
         comment = commentRepository.save(comment);
 
@@ -129,6 +201,13 @@ public class CommentServiceImpl implements CommentService {
     }
 
 
+    private void adjustCount(Long eventId, CommentState state, long delta) {
+        switch (state) {
+            case PUBLIC -> eventCommentCountRepository.adjust(eventId, delta, 0);
+            case HIDE -> eventCommentCountRepository.adjust(eventId, 0, delta);
+        }
+    }
+
     private void checkExistsUserAndComment(Long userId, Long commentId) {
         log.info("Метод checkExistsUserAndComment(); userId={}, commentId={}", userId, commentId);
 
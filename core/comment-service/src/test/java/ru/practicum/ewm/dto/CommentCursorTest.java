@@ -0,0 +1,58 @@
+package ru.practicum.ewm.dto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.practicum.ewm.user_service.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommentCursorTest {
+
+    @Test
+    void roundTripsPublishedOnWithNanos() {
+        CommentCursor cursor = new CommentCursor(Instant.parse("2024-05-20T08:00:00.000000001Z"), 15L);
+
+        assertThat(CommentCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void cursorsOfSameMomentDifferById() {
+        Instant publishedOn = Instant.parse("2024-05-20T08:00:00Z");
+
+        assertThat(new CommentCursor(publishedOn, 1L).encode())
+                .isNotEqualTo(new CommentCursor(publishedOn, 2L).encode());
+    }
+
+    @Test
+    void encodedCursorHasNoPaddingOrUrlUnsafeCharacters() {
+        String encoded = new CommentCursor(Instant.parse("2099-12-31T23:59:59.999Z"), Long.MAX_VALUE).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingCursorStartsFromFirstPage() {
+        assertThat(CommentCursor.decode(null)).isNull();
+        assertThat(CommentCursor.decode(" ")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"%%%", "MQ", "MTo", "eDp5Ono", "MToyOi0"})
+    void malformedCursorIsBadRequest(String cursor) {
+        assertThatThrownBy(() -> CommentCursor.decode(cursor)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void cursorWithTrailingSeparatorIsBadRequest() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1:2:3:".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> CommentCursor.decode(cursor)).isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.ewm.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import ru.practicum.ewm.user_service.client.UserServiceClient;
+import ru.practicum.ewm.user_service.dto.UserDto;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CommentAuthorResolverTest {
+
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+
+    private final CommentAuthorResolver resolver = new CommentAuthorResolver(userServiceClient,
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+
+    @Test
+    void pageIsResolvedWithOneCall() {
+        when(userServiceClient.getUsersByIds(anyList())).thenReturn(List.of(user(1L, "Анна"), user(2L, "Борис")));
+
+        Map<Long, String> names = resolver.getNames(Arrays.asList(1L, 2L, 1L, null));
+
+        assertThat(this.requestedIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(names).containsExactlyInAnyOrderEntriesOf(Map.of(1L, "Анна", 2L, "Борис"));
+    }
+
+    @Test
+    void cachedAuthorsAreNotRequested() {
+        when(userServiceClient.getUsersByIds(anyList()))
+                .thenReturn(List.of(user(1L, "Анна")), List.of(user(2L, "Борис")));
+
+        resolver.getNames(List.of(1L));
+        Map<Long, String> names = resolver.getNames(List.of(1L, 2L));
+
+        ArgumentCaptor<List<Long>> ids = ArgumentCaptor.captor();
+        verify(userServiceClient, times(2)).getUsersByIds(ids.capture());
+        assertThat(ids.getAllValues().getLast()).containsExactly(2L);
+        assertThat(names).containsExactlyInAnyOrderEntriesOf(Map.of(1L, "Анна", 2L, "Борис"));
+
+        // Все авторы в кэше: user-service не вызывается
+        resolver.getNames(List.of(2L, 1L));
+        verify(userServiceClient, times(2)).getUsersByIds(anyList());
+    }
+
+    @Test
+    void missingAuthorIsAbsent() {
+        when(userServiceClient.getUsersByIds(anyList())).thenReturn(List.of(user(1L, "Анна")));
+
+        assertThat(resolver.getNames(List.of(1L, 2L))).containsOnlyKeys(1L);
+    }
+
+    @Test
+    void failingClientReturnsCachedNamesOnly() {
+        when(userServiceClient.getUsersByIds(anyList()))
+                .thenReturn(List.of(user(1L, "Анна")))
+                .thenThrow(new IllegalStateException("user-service недоступен"))
+                .thenReturn(List.of(user(2L, "Борис")));
+        resolver.getNames(List.of(1L));
+
+        assertThat(resolver.getNames(List.of(1L, 2L))).containsExactlyEntriesOf(Map.of(1L, "Анна"));
+
+        // Неудачный запрос не кэшируется: следующая страница запрашивает автора снова
+        assertThat(resolver.getNames(List.of(2L))).containsExactlyEntriesOf(Map.of(2L, "Борис"));
+    }
+
+    @Test
+    void emptyPageIsNotRequested() {
+        assertThat(resolver.getNames(Arrays.asList(null, null))).isEmpty();
+
+        verifyNoInteractions(userServiceClient);
+    }
+
+    private List<Long> requestedIds() {
+        ArgumentCaptor<List<Long>> ids = ArgumentCaptor.captor();
+        verify(userServiceClient).getUsersByIds(ids.capture());
+        return ids.getValue();
+    }
+
+    private static UserDto user(Long id, String name) {
+        return new UserDto(id, "user" + id + "@example.com", name);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.ewm.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.ewm.event_service.client.EventServiceClient;
+import ru.practicum.ewm.mapper.CommentMapperImpl;
+import ru.practicum.ewm.model.Comment;
+import ru.practicum.ewm.model.EventCommentCount;
+import ru.practicum.ewm.repository.CommentRepository;
+import ru.practicum.ewm.repository.EventCommentCountRepository;
+import ru.practicum.ewm.user_service.client.UserServiceClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        // Без application.yaml: его spring.config.import требует config-server
+        "spring.config.name=comment-count-concurrency-test",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CommentServiceImpl.class, CommentMapperImpl.class})
+// Каждый вызов сервиса фиксирует свою транзакцию, как в работающем приложении
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CommentCountConcurrencyTest {
+
+    private static final long EVENT_ID = 1L;
+    private static final long AUTHOR_ID = 5L;
+    private static final int THREADS = 8;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @MockBean
+    private EventServiceClient eventServiceClient;
+
+    @MockBean
+    private CommentAuthorResolver commentAuthorResolver;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EventCommentCountRepository countRepository;
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        countRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentStateChangesMoveCommentBetweenCountersOnce() throws Exception {
+        Long commentId = commentRepository.save(Comment.builder()
+                .annotation("Аннотация")
+                .text("Текст")
+                .authorId(AUTHOR_ID)
+                .eventId(EVENT_ID)
+                .build()).getId();
+        countRepository.save(new EventCommentCount(EVENT_ID, 1L, 0L));
+
+        concurrently(() -> commentService.hide(EVENT_ID, commentId, false));
+        assertCounts(0, 1);
+
+        concurrently(() -> commentService.hide(EVENT_ID, commentId, true));
+        assertCounts(1, 0);
+
+        concurrently(() -> {
+            commentService.delete(AUTHOR_ID, commentId);
+            return null;
+        });
+        assertCounts(0, 0);
+    }
+
+    private void assertCounts(long publicCount, long hiddenCount) {
+        EventCommentCount count = countRepository.findById(EVENT_ID).orElseThrow();
+        assertThat(count.getPublicCount()).isEqualTo(publicCount);
+        assertThat(count.getHiddenCount()).isEqualTo(hiddenCount);
+    }
+
+    // Все вызовы стартуют одновременно; проигравшие гонку удаления получают NotFoundException
+    private static void concurrently(Callable<?> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    return call.call();
+                } catch (RuntimeException e) {
+                    return e;
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.ewm.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.event_service.client.EventServiceClient;
+import ru.practicum.ewm.mapper.CommentMapper;
+import ru.practicum.ewm.model.Comment;
+import ru.practicum.ewm.model.CommentState;
+import ru.practicum.ewm.repository.CommentRepository;
+import ru.practicum.ewm.repository.EventCommentCountRepository;
+import ru.practicum.ewm.user_service.client.UserServiceClient;
+import ru.practicum.ewm.user_service.exception.NotFoundException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CommentServiceImplTest {
+
+    private static final long EVENT_ID = 1L;
+    private static final long COMMENT_ID = 10L;
+    private static final long AUTHOR_ID = 5L;
+
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+
+    private final EventCommentCountRepository countRepository = mock(EventCommentCountRepository.class);
+
+    private final CommentServiceImpl service = new CommentServiceImpl(mock(UserServiceClient.class),
+            mock(EventServiceClient.class), commentRepository, countRepository, mock(CommentMapper.class),
+            mock(CommentAuthorResolver.class));
+
+    @BeforeEach
+    void setUp() {
+        when(commentRepository.existsByIdAndEventId(COMMENT_ID, EVENT_ID)).thenReturn(true);
+        when(commentRepository.existsByIdAndAuthorId(COMMENT_ID, AUTHOR_ID)).thenReturn(true);
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void hidingPublicCommentMovesItBetweenCounters() {
+        stored(CommentState.PUBLIC);
+
+        service.hide(EVENT_ID, COMMENT_ID, false);
+
+        verify(countRepository).adjust(EVENT_ID, -1, 0);
+        verify(countRepository).adjust(EVENT_ID, 0, 1);
+    }
+
+    @Test
+    void publishingHiddenCommentMovesItBack() {
+        stored(CommentState.HIDE);
+
+        service.hide(EVENT_ID, COMMENT_ID, true);
+
+        verify(countRepository).adjust(EVENT_ID, 0, -1);
+        verify(countRepository).adjust(EVENT_ID, 1, 0);
+    }
+
+    @Test
+    void repeatedHideDoesNotChangeCounters() {
+        stored(CommentState.HIDE);
+
+        service.hide(EVENT_ID, COMMENT_ID, false);
+
+        verify(countRepository, never()).adjust(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void deletingHiddenCommentDecrementsHiddenCounter() {
+        stored(CommentState.HIDE);
+
+        service.delete(AUTHOR_ID, COMMENT_ID);
+
+        verify(countRepository).adjust(EVENT_ID, 0, -1);
+    }
+
+    @Test
+    void commentDeletedConcurrentlyIsNotCountedTwice() {
+        // Под блокировкой строки второй вызов видит, что комментарий уже удалён
+        when(commentRepository.findWithLockById(COMMENT_ID)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.delete(AUTHOR_ID, COMMENT_ID)).isInstanceOf(NotFoundException.class);
+        verify(countRepository, never()).adjust(anyLong(), anyLong(), anyLong());
+    }
+
+    private void stored(CommentState state) {
+        Comment comment = Comment.builder()
+                .id(COMMENT_ID)
+                .annotation("Аннотация")
+                .text("Текст")
+                .authorId(AUTHOR_ID)
+                .eventId(EVENT_ID)
+                .state(state)
+                .build();
+        when(commentRepository.findWithLockById(COMMENT_ID)).thenReturn(Optional.of(comment));
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.ewm.category.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewm.category.model.Category;
@@ -7,6 +9,8 @@ import ru.practicum.ewm.category.model.Category;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    Slice<Category> findAllBy(Pageable pageable);
+
     boolean existsByNameIgnoreCase(String name);
 
     boolean existsByNameIgnoreCaseAndIdNot(String name, Long catId);
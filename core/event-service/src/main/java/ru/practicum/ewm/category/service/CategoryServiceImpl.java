@@ -89,7 +89,7 @@ public class CategoryServiceImpl implements CategoryService {
         int page = from / size;
         Pageable pageable = PageRequest.of(page, size);
 
-        List<Category> categories = categoryRepository.findAll(pageable).getContent();
+        List<Category> categories = categoryRepository.findAllBy(pageable).getContent();
 
         return categories.stream()
                 .map(categoryMapper::toDto)
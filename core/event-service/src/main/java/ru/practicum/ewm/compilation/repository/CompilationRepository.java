@@ -1,7 +1,7 @@
 package ru.practicum.ewm.compilation.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewm.compilation.model.Compilation;
@@ -9,5 +9,7 @@ import ru.practicum.ewm.compilation.model.Compilation;
 @Repository
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
 
-    Page<Compilation> findByPinned(Boolean pinned, Pageable pageable);
+    Slice<Compilation> findByPinned(Boolean pinned, Pageable pageable);
+
+    Slice<Compilation> findAllBy(Pageable pageable);
 }
\ No newline at end of file
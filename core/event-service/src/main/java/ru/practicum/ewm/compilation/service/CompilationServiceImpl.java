@@ -2,9 +2,9 @@ package ru.practicum.ewm.compilation.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.compilation.dto.CompilationDto;
@@ -13,11 +13,16 @@ import ru.practicum.ewm.compilation.dto.UpdateCompilationDto;
 import ru.practicum.ewm.compilation.mapper.CompilationMapper;
 import ru.practicum.ewm.compilation.model.Compilation;
 import ru.practicum.ewm.compilation.repository.CompilationRepository;
+import ru.practicum.ewm.event.dto.EventShortDto;
 import ru.practicum.ewm.event.model.Event;
 import ru.practicum.ewm.event.repository.EventRepository;
+import ru.practicum.ewm.event.service.EventInitiatorEnricher;
+import ru.practicum.ewm.event.service.EventViewsService;
 import ru.practicum.ewm.user_service.exception.NotFoundException;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 @Slf4j
@@ -31,6 +36,10 @@ public class CompilationServiceImpl implements CompilationService {
 
     private final CompilationMapper compilationMapper;
 
+    private final EventViewsService eventViewsService;
+
+    private final EventInitiatorEnricher eventInitiatorEnricher;
+
     // Admin API:
     @Override
     @Transactional
@@ -84,13 +93,16 @@ public class CompilationServiceImpl implements CompilationService {
 
         int page = from / size;
         Pageable pageable = PageRequest.of(page, size);
-        Page<Compilation> compilations = pinned != null
-                ? compilationRepository.findByPinned(pinned, pageable) : compilationRepository.findAll(pageable);
+        Slice<Compilation> compilations = pinned != null
+                ? compilationRepository.findByPinned(pinned, pageable) : compilationRepository.findAllBy(pageable);
 
-        return compilations.getContent()
+        List<CompilationDto> dtos = compilations.getContent()
                 .stream()
                 .map(compilationMapper::toDto)
                 .toList();
+        this.enrichEvents(dtos);
+
+        return dtos;
     }
 
     @Override
@@ -101,7 +113,10 @@ public class CompilationServiceImpl implements CompilationService {
 
         log.debug("compilation={}", compilation);
 
-        return compilationMapper.toDto(compilation);
+        CompilationDto dto = compilationMapper.toDto(compilation);
+        this.enrichEvents(List.of(dto));
+
+        return dto;
     }
 
 
@@ -109,6 +124,21 @@ public class CompilationServiceImpl implements CompilationService {
         return compilationRepository.findById(compId).orElseThrow(() -> new NotFoundException("Подборка не найдена"));
     }
 
+    // Просмотры и инициаторы событий всех подборок страницы запрашиваются одним обращением
+    // к stats-server и к user-service соответственно
+    private void enrichEvents(List<CompilationDto> compilations) {
+        List<EventShortDto> events = compilations.stream()
+                .map(CompilationDto::getEvents)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .toList();
+
+        Map<Long, Long> views = eventViewsService.getViews(events.stream().map(EventShortDto::getId).toList());
+        events.forEach(event -> event.setViews(views.getOrDefault(event.getId(), 0L)));
+
+        eventInitiatorEnricher.enrich(events.stream().map(EventShortDto::getInitiator).toList());
+    }
+
     private List<Event> findEventsBy(Set<Long> eventsIds) {
         List<Event> events = eventRepository.findEventsByIdIn(eventsIds);
 
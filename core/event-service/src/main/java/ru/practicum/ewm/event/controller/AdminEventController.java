@@ -9,6 +9,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.ewm.event.dto.AdminEventSearchParams;
 import ru.practicum.ewm.event.dto.EventFullDto;
+import ru.practicum.ewm.event.dto.KeysetPage;
 import ru.practicum.ewm.event.dto.UpdEventAdminRequest;
 import ru.practicum.ewm.event.service.EventService;
 
@@ -36,7 +37,12 @@ public class AdminEventController {
     public ResponseEntity<List<EventFullDto>> adminSearch(@Valid @ModelAttribute AdminEventSearchParams params) {
         log.debug("Метод adminSearchEvents; {}", params);
 
-        List<EventFullDto> events = eventService.searchForAdmin(params);
-        return ResponseEntity.ok(events);
+        KeysetPage<EventFullDto> events = eventService.searchForAdmin(params);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (events.nextCursor() != null) {
+            response.header(KeysetPage.NEXT_CURSOR_HEADER, events.nextCursor());
+        }
+        return response.body(events.content());
     }
 }
\ No newline at end of file
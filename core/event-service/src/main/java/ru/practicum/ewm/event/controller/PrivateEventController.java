@@ -41,11 +41,17 @@ public class PrivateEventController {
     @GetMapping
     public ResponseEntity<List<EventShortDto>> findAll(@PathVariable("userId") @Positive Long userId,
                                                        @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                       @RequestParam(defaultValue = "10") @Positive int size) {
-        log.debug("Метод findAll(); userId={}, from={}, size={}", userId, from, size);
+                                                       @RequestParam(defaultValue = "10") @Positive int size,
+                                                       @RequestParam(required = false) String cursor) {
+        log.debug("Метод findAll(); userId={}, from={}, size={}, cursor={}", userId, from, size, cursor);
 
-        List<EventShortDto> result = eventService.getAllByUser(userId, from, size);
-        return ResponseEntity.ok(result);
+        KeysetPage<EventShortDto> result = eventService.getAllByUser(userId, from, size, cursor);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.nextCursor() != null) {
+            response.header(KeysetPage.NEXT_CURSOR_HEADER, result.nextCursor());
+        }
+        return response.body(result.content());
     }
 
     @GetMapping("/{eventId}")
@@ -7,10 +7,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.ewm.cache.ChangeFeedDto;
 import ru.practicum.ewm.event.dto.EventFullDto;
+import ru.practicum.ewm.event.dto.KeysetPage;
 import ru.practicum.ewm.event.dto.UserEventSearchParams;
+import ru.practicum.ewm.event.service.EventChangeFeed;
 import ru.practicum.ewm.event.service.EventService;
 import ru.practicum.ewm.event_service.dto.EventDtoForRequestService;
+import ru.practicum.ewm.event_service.dto.SlotReservationDto;
 
 import java.util.List;
 
@@ -22,6 +26,8 @@ public class PublicEventController {
 
     private final EventService eventService;
 
+    private final EventChangeFeed eventChangeFeed;
+
     @GetMapping("/{eventId}")
     public ResponseEntity<EventFullDto> publicSearchOne(@PathVariable @Positive Long eventId,
                                                         HttpServletRequest request) {
@@ -36,8 +42,13 @@ public class PublicEventController {
                                                                HttpServletRequest request) {
         log.debug("Метод publicSearchMany(); {}", params);
 
-        List<EventFullDto> events = eventService.getPublicBy(params, request);
-        return ResponseEntity.ok(events);
+        KeysetPage<EventFullDto> events = eventService.getPublicBy(params, request);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (events.nextCursor() != null) {
+            response.header(KeysetPage.NEXT_CURSOR_HEADER, events.nextCursor());
+        }
+        return response.body(events.content());
     }
 
     @GetMapping("/internal/{eventId}")
@@ -65,4 +76,29 @@ public class PublicEventController {
             return ResponseEntity.status(500).build();
         }
     }
-}
\ No newline at end of file
+
+    @PutMapping("internal/{eventId}/reserve")
+    public ResponseEntity<SlotReservationDto> reserveSlots(@PathVariable Long eventId,
+                                                           @RequestParam @Positive int slots) {
+        log.debug("Feign-запрос: резервирование {} мест для eventId={}", slots, eventId);
+
+        return ResponseEntity.ok(eventService.reserveSlots(eventId, slots));
+    }
+
+    @PutMapping("internal/{eventId}/release")
+    public ResponseEntity<Void> releaseSlots(@PathVariable Long eventId,
+                                             @RequestParam @Positive int slots) {
+        log.debug("Feign-запрос: освобождение {} мест для eventId={}", slots, eventId);
+
+        eventService.releaseSlots(eventId, slots);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/internal/changes")
+    public ResponseEntity<ChangeFeedDto> getChanges(@RequestParam long after,
+                                                    @RequestParam(defaultValue = "500") int limit) {
+        log.debug("Feign-запрос: лента изменений событий после {}", after);
+
+        return ResponseEntity.ok(eventChangeFeed.getChanges(after, limit));
+    }
+}
@@ -28,4 +28,7 @@ public class AdminEventSearchParams {
 
     @Positive
     private Integer size = 10;
+
+    // Keyset-пагинация по (eventDate, id); пустое значение — первая страница, from при этом не учитывается
+    private String cursor;
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package ru.practicum.ewm.event.dto;
+
+import ru.practicum.ewm.user_service.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Позиция keyset-пагинации: (eventDate, id) последнего события страницы.
+ * Клиенту отдаётся в виде непрозрачной base64url-строки.
+ */
+public record EventCursor(Instant eventDate, Long id) {
+
+    private static final String SEPARATOR = ":";
+
+    public String encode() {
+        String raw = eventDate.getEpochSecond() + SEPARATOR + eventDate.getNano() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Пустая строка означает первую страницу в режиме курсора
+    public static EventCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new BadRequestException("Некорректный cursor={}", cursor);
+            }
+            Instant eventDate = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new EventCursor(eventDate, Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Некорректный cursor={}", cursor);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.ewm.event.dto;
+
+import java.util.List;
+
+// nextCursor == null — следующей страницы нет или запрос выполнялся не в режиме курсора
+public record KeysetPage<T>(List<T> content, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+}
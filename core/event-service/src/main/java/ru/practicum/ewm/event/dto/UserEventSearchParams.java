@@ -13,6 +13,9 @@ public class UserEventSearchParams {
 
     private String text;
 
+    // Поиск text по полнотекстовому индексу (синтаксис websearch_to_tsquery) вместо подстроки
+    private Boolean fullText = false;
+
     private List<@Positive Long> categories;
 
     private Boolean paid;
@@ -33,8 +36,13 @@ public class UserEventSearchParams {
     @Positive
     private Integer size = 10;
 
+    // Keyset-пагинация по (eventDate, id), только для sort=EVENT_DATE; пустое значение — первая страница
+    private String cursor;
+
     public enum Sort {
         EVENT_DATE,
-        VIEWS
+        VIEWS,
+        // Только для полнотекстового поиска; включает его, даже если fullText не задан
+        RELEVANCE
     }
 }
\ No newline at end of file
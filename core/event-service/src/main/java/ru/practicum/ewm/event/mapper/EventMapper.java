@@ -5,6 +5,7 @@ import ru.practicum.ewm.category.mapper.CategoryMapper;
 import ru.practicum.ewm.event.dto.*;
 import ru.practicum.ewm.event.model.Event;
 import ru.practicum.ewm.event_service.dto.EventDtoForRequestService;
+import ru.practicum.ewm.user_service.dto.UserShortDto;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -17,6 +18,7 @@ public interface EventMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "confirmedRequests", ignore = true)
+    @Mapping(target = "leasedSlots", ignore = true)
     @Mapping(target = "createdOn", ignore = true)
     @Mapping(target = "location", ignore = true)
     @Mapping(target = "eventDate", expression = "java(toInstantForMap(newEventDto.getEventDate()))")
@@ -31,18 +33,19 @@ public interface EventMapper {
     Event toEntity(NewEventDto newEventDto);
 
     @Mapping(target = "eventDate", expression = "java(toLocalDateTimeForMap(event.getEventDate()))")
-    @Mapping(target = "initiator", ignore = true)
+    @Mapping(target = "initiator", expression = "java(toInitiator(event.getInitiatorId()))")
     EventShortDto toShortDto(Event event);
 
     @Mapping(target = "createdOn", expression = "java(toLocalDateTimeForMap(event.getCreatedOn()))")
     @Mapping(target = "eventDate", expression = "java(toLocalDateTimeForMap(event.getEventDate()))")
     @Mapping(target = "publishedOn", expression = "java(toLocalDateTimeForMap(event.getPublishedOn()))")
-    @Mapping(target = "initiator", ignore = true)
+    @Mapping(target = "initiator", expression = "java(toInitiator(event.getInitiatorId()))")
     EventFullDto toFullDto(Event event);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "category", ignore = true)
+    @Mapping(target = "leasedSlots", ignore = true)
     @Mapping(target = "location", ignore = true)
     @Mapping(target = "eventDate",
             expression = "java(toInstantForUpdate(updEventUserRequest.getEventDate(), event.getEventDate()))")
@@ -53,6 +56,7 @@ public interface EventMapper {
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "category", ignore = true)
+    @Mapping(target = "leasedSlots", ignore = true)
     @Mapping(target = "location", ignore = true)
     @Mapping(target = "eventDate",
             expression = "java(toInstantForUpdate(updEventAdminRequest.getEventDate(), event.getEventDate()))")
@@ -68,6 +72,11 @@ public interface EventMapper {
     @Mapping(target = "requestModeration", source = "requestModeration")
     EventDtoForRequestService toEventDtoForRequestService(Event event);
 
+    // Имя инициатора заполняется отдельно, одним запросом в user-service на страницу
+    default UserShortDto toInitiator(Long initiatorId) {
+        return initiatorId != null ? UserShortDto.builder().id(initiatorId).build() : null;
+    }
+
     default Instant toInstantForMap(LocalDateTime dateTime) {
         return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC) : null;
     }
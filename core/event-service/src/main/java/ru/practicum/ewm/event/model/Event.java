@@ -8,7 +8,11 @@ import ru.practicum.ewm.event.dto.Location;
 import java.time.Instant;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events",
+        indexes = {
+                @Index(name = "idx_events_initiator_date", columnList = "initiator_id, event_date DESC, id DESC"),
+                @Index(name = "idx_events_date_id", columnList = "event_date, id")
+        })
 @Getter
 @Setter
 @Builder
@@ -33,12 +37,22 @@ public class Event {
     @ToString.Exclude
     private Category category;
 
+    // Меняется только атомарными запросами EventRepository, чтобы save() не затирал параллельные резервирования
     @Column(name = "confirmed_requests",
             nullable = false,
+            updatable = false,
             columnDefinition = "integer default 0")
     @Builder.Default
     private Long confirmedRequests = 0L;
 
+    // Места, выданные экземплярам EventCapacityTracker блоками и ещё не учтённые в confirmed_requests
+    @Column(name = "leased_slots",
+            nullable = false,
+            updatable = false,
+            columnDefinition = "integer default 0")
+    @Builder.Default
+    private Long leasedSlots = 0L;
+
     @Column(name = "created_on",
             nullable = false)
     @Builder.Default
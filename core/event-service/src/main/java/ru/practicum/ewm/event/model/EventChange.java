@@ -0,0 +1,35 @@
+package ru.practicum.ewm.event.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.ewm.cache.ChangeFeedEntry;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись ленты изменений событий. По ней клиенты event-service сбрасывают свои локальные кэши.
+ */
+@Entity
+@Table(name = "event_changes")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventChange implements ChangeFeedEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Override
+    public Long getEntityId() {
+        return eventId;
+    }
+}
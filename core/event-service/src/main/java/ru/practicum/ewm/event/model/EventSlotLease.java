@@ -0,0 +1,49 @@
+package ru.practicum.ewm.event.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Блок мест, взятый экземпляром EventCapacityTracker: его доля в events.leased_slots.
+ * Экземпляр продлевает leased_until, пока работает; блок упавшего экземпляра после leased_until
+ * возвращает EventSlotLeaseReclaimJob. Строки меняются только запросами EventRepository.
+ */
+@Entity
+@Table(name = "event_slot_leases")
+@IdClass(EventSlotLease.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSlotLease {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Id
+    @Column(length = 64)
+    private String owner;
+
+    @Column(nullable = false)
+    private Integer slots;
+
+    @Column(name = "leased_until", nullable = false)
+    private Instant leasedUntil;
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long eventId;
+
+        private String owner;
+    }
+}
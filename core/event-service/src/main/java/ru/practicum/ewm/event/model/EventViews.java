@@ -0,0 +1,26 @@
+package ru.practicum.ewm.event.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Проекция уникальных просмотров события из stats-server.
+ * Строка создаётся при публикации события и периодически обновляется EventViewsSyncJob.
+ */
+@Entity
+@Table(name = "event_views",
+        indexes = @Index(name = "idx_event_views_top", columnList = "views DESC, event_id"))
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventViews {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(nullable = false)
+    private Long views;
+}
@@ -0,0 +1,26 @@
+package ru.practicum.ewm.event.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Время последней синхронизации event_views. Одна строка на все экземпляры event-service:
+ * по ней экземпляр понимает, что синхронизацию за этот интервал уже выполнил другой.
+ */
+@Entity
+@Table(name = "event_views_sync")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventViewsSyncState {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "synced_at", nullable = false)
+    private Instant syncedAt;
+}
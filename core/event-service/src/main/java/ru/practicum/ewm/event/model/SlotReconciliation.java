@@ -0,0 +1,37 @@
+package ru.practicum.ewm.event.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Места, занятые под подтверждение заявок, пока исход подтверждения не известен.
+ * Строка пишется до вызова request-service и удаляется, когда места учтены: после перезапуска
+ * event-service её сверяет SlotReconciler любого экземпляра.
+ */
+@Entity
+@Table(name = "slot_reconciliations")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotReconciliation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "request_ids", nullable = false)
+    private Long[] requestIds;
+
+    @Column(name = "reserved_slots", nullable = false)
+    private Integer reservedSlots;
+
+    @Column(name = "due_at", nullable = false)
+    private Instant dueAt;
+}
@@ -0,0 +1,9 @@
+package ru.practicum.ewm.event.repository;
+
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.cache.ChangeFeedRepository;
+import ru.practicum.ewm.event.model.EventChange;
+
+@Repository
+public interface EventChangeRepository extends ChangeFeedRepository<EventChange> {
+}
@@ -0,0 +1,23 @@
+package ru.practicum.ewm.event.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import ru.practicum.ewm.event.model.QEvent;
+
+// QueryDSL-обёртки над функциями из FullTextFunctionContributor
+public final class EventFullText {
+
+    private EventFullText() {
+    }
+
+    public static BooleanExpression matches(QEvent event, String text) {
+        return Expressions.booleanTemplate("fts_match({0}, {1}, {2}) = true",
+                event.annotation, event.description, text);
+    }
+
+    public static NumberExpression<Double> rank(QEvent event, String text) {
+        return Expressions.numberTemplate(Double.class, "fts_rank({0}, {1}, {2})",
+                event.annotation, event.description, text);
+    }
+}
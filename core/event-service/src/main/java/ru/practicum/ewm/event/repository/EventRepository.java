@@ -1,21 +1,27 @@
 package ru.practicum.ewm.event.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.event.model.Event;
 import ru.practicum.ewm.event.model.EventState;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event> {
+public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event>,
+        EventSearchRepository {
 
-    Page<Event> findAllByInitiatorId(Long userId, Pageable pageable);
+    Slice<Event> findAllByInitiatorId(Long userId, Pageable pageable);
 
     Optional<Event> findByIdAndInitiatorId(Long eventId, Long userId);
 
@@ -26,4 +32,82 @@ public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPre
     boolean existsByCategoryId(Long categoryId);
 
     boolean existsByIdAndInitiatorId(Long eventId, Long userId);
-}
\ No newline at end of file
+
+    // Занимает до slots мест одним запросом под блокировкой строки; возвращает число занятых мест,
+    // 0 — если лимит исчерпан, null — если события нет
+    @Query(value = "WITH target AS (" +
+            "SELECT id, CASE WHEN COALESCE(participant_limit, 0) = 0 THEN :slots " +
+            "ELSE GREATEST(LEAST(:slots, participant_limit - confirmed_requests - leased_slots), 0) END AS granted " +
+            "FROM events WHERE id = :eventId FOR UPDATE) " +
+            "UPDATE events e SET confirmed_requests = e.confirmed_requests + t.granted " +
+            "FROM target t WHERE e.id = t.id " +
+            "RETURNING t.granted", nativeQuery = true)
+    @Transactional
+    Integer reserveSlots(Long eventId, int slots);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE events SET confirmed_requests = GREATEST(confirmed_requests - :slots, 0) " +
+            "WHERE id = :eventId", nativeQuery = true)
+    void releaseSlots(Long eventId, int slots);
+
+    // Блок мест для EventCapacityTracker: не меньше slots и не больше batch. Близко к лимиту блок
+    // уменьшается до четверти остатка, чтобы один экземпляр не забирал места, нужные другим.
+    // Блок записывается и на владельца в event_slot_leases. Собственная транзакция: выданный в память
+    // блок не откатывается вместе с вызывающим кодом
+    @Query(value = "WITH target AS (" +
+            "SELECT id, CASE WHEN COALESCE(participant_limit, 0) = 0 THEN GREATEST(:slots, :batch) " +
+            "ELSE GREATEST(LEAST(GREATEST(:slots, LEAST(:batch, " +
+            "(participant_limit - confirmed_requests - leased_slots) / 4)), " +
+            "participant_limit - confirmed_requests - leased_slots), 0) END AS granted " +
+            "FROM events WHERE id = :eventId FOR UPDATE), " +
+            "lease AS (" +
+            "INSERT INTO event_slot_leases (event_id, owner, slots, leased_until) " +
+            "SELECT id, :owner, granted, :leasedUntil FROM target WHERE granted > 0 " +
+            "ON CONFLICT (event_id, owner) DO UPDATE SET slots = event_slot_leases.slots + EXCLUDED.slots, " +
+            "leased_until = EXCLUDED.leased_until) " +
+            "UPDATE events e SET leased_slots = e.leased_slots + t.granted " +
+            "FROM target t WHERE e.id = t.id " +
+            "RETURNING t.granted", nativeQuery = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    Integer leaseSlots(Long eventId, int slots, int batch, String owner, Instant leasedUntil);
+
+    // Учёт блока: consumed мест выдано заявкам (отрицательное — возвращено после учёта),
+    // returned мест не понадобилось. Если блок владельца уже возвращён EventSlotLeaseReclaimJob,
+    // leased_slots не меняется: его доля из leased_slots уже вычтена.
+    // Строка events блокируется первой, в том же порядке, что и в остальных запросах к блокам
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "WITH target AS (SELECT id FROM events WHERE id = :eventId FOR UPDATE), " +
+            "lease AS (" +
+            "UPDATE event_slot_leases l SET slots = l.slots - :consumed - :returned, leased_until = :leasedUntil " +
+            "FROM target t WHERE l.event_id = t.id AND l.owner = :owner " +
+            "RETURNING l.event_id) " +
+            "UPDATE events e SET confirmed_requests = GREATEST(e.confirmed_requests + :consumed, 0), " +
+            "leased_slots = GREATEST(e.leased_slots - " +
+            "CASE WHEN EXISTS (SELECT 1 FROM lease) THEN :consumed + :returned ELSE 0 END, 0) " +
+            "FROM target t WHERE e.id = t.id", nativeQuery = true)
+    void settleLease(Long eventId, long consumed, long returned, String owner, Instant leasedUntil);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE event_slot_leases SET leased_until = :leasedUntil WHERE owner = :owner",
+            nativeQuery = true)
+    void extendLeases(String owner, Instant leasedUntil);
+
+    // Возвращает в лимит просроченные блоки и удаляет пустые; возвращает число затронутых событий
+    @Modifying
+    @Transactional
+    @Query(value = "WITH target AS (" +
+            "SELECT id FROM events WHERE id IN (" +
+            "SELECT event_id FROM event_slot_leases WHERE leased_until < :now OR slots = 0) " +
+            "ORDER BY id FOR UPDATE), " +
+            "expired AS (" +
+            "DELETE FROM event_slot_leases l USING target t " +
+            "WHERE l.event_id = t.id AND (l.leased_until < :now OR l.slots = 0) " +
+            "RETURNING l.event_id, l.slots), " +
+            "returned AS (SELECT event_id, SUM(slots) AS slots FROM expired GROUP BY event_id) " +
+            "UPDATE events e SET leased_slots = GREATEST(e.leased_slots - r.slots, 0) " +
+            "FROM returned r WHERE e.id = r.event_id AND r.slots <> 0", nativeQuery = true)
+    int reclaimExpiredLeases(Instant now);
+}
@@ -0,0 +1,21 @@
+package ru.practicum.ewm.event.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.ewm.event.model.Event;
+
+import java.util.List;
+
+public interface EventSearchRepository {
+
+    // Без count-запроса: выбирается pageSize + 1 строк, лишняя строка только признак следующей страницы
+    Slice<Event> findSlice(Predicate predicate, Pageable pageable, OrderSpecifier<?>... orders);
+
+    // Сортировка по убыванию просмотров из event_views; события без строки в event_views не попадают
+    List<Event> findAllOrderByViews(Predicate predicate, Pageable pageable);
+
+    // Сортировка по убыванию ts_rank полнотекстового запроса text
+    List<Event> findAllOrderByRelevance(Predicate predicate, String text, Pageable pageable);
+}
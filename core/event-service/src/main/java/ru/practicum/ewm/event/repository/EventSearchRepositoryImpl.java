@@ -0,0 +1,69 @@
+package ru.practicum.ewm.event.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.QEvent;
+import ru.practicum.ewm.event.model.QEventViews;
+
+import java.util.List;
+
+public class EventSearchRepositoryImpl implements EventSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Event> findSlice(Predicate predicate, Pageable pageable, OrderSpecifier<?>... orders) {
+        QEvent event = QEvent.event;
+
+        List<Event> events = new JPAQueryFactory(JPQLTemplates.DEFAULT, entityManager)
+                .selectFrom(event)
+                .where(predicate)
+                .orderBy(orders)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .fetch();
+
+        boolean hasNext = events.size() > pageable.getPageSize();
+        List<Event> content = hasNext ? events.subList(0, pageable.getPageSize()) : events;
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public List<Event> findAllOrderByViews(Predicate predicate, Pageable pageable) {
+        QEvent event = QEvent.event;
+        QEventViews eventViews = QEventViews.eventViews;
+
+        // События без строки в event_views (ещё не синхронизированы) идут как события без просмотров
+        return new JPAQueryFactory(JPQLTemplates.DEFAULT, entityManager)
+                .selectFrom(event)
+                .leftJoin(eventViews).on(eventViews.eventId.eq(event.id))
+                .where(predicate)
+                .orderBy(eventViews.views.coalesce(0L).desc(), event.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+
+    @Override
+    public List<Event> findAllOrderByRelevance(Predicate predicate, String text, Pageable pageable) {
+        QEvent event = QEvent.event;
+
+        return new JPAQueryFactory(JPQLTemplates.DEFAULT, entityManager)
+                .selectFrom(event)
+                .where(predicate)
+                .orderBy(EventFullText.rank(event, text).desc(), event.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.ewm.event.repository;
+
+import java.util.Map;
+
+public interface EventViewsBatchRepository {
+
+    // Возвращает число строк, значение views в которых изменилось
+    int upsertAll(Map<Long, Long> views);
+}
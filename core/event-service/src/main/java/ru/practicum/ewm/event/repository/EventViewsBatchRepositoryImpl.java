@@ -0,0 +1,40 @@
+package ru.practicum.ewm.event.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class EventViewsBatchRepositoryImpl implements EventViewsBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    // Неизменившиеся строки не переписываются, чтобы не плодить мёртвые версии и не трогать индекс
+    private static final String UPSERT_VIEWS = "INSERT INTO event_views (event_id, views) VALUES (?, ?) " +
+            "ON CONFLICT (event_id) DO UPDATE SET views = EXCLUDED.views " +
+            "WHERE event_views.views <> EXCLUDED.views";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int upsertAll(Map<Long, Long> views) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(views.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPSERT_VIEWS, entries, BATCH_SIZE, (ps, entry) -> {
+            ps.setLong(1, entry.getKey());
+            ps.setLong(2, entry.getValue());
+        });
+
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                updated += Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.ewm.event.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.event.model.EventViews;
+
+@Repository
+public interface EventViewsRepository extends JpaRepository<EventViews, Long>, EventViewsBatchRepository {
+
+    @Modifying
+    @Query(value = "INSERT INTO event_views (event_id, views) VALUES (:eventId, 0) " +
+            "ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    void initViews(Long eventId);
+}
@@ -0,0 +1,26 @@
+package ru.practicum.ewm.event.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.event.model.EventViewsSyncState;
+
+import java.time.Instant;
+
+@Repository
+public interface EventViewsSyncStateRepository extends JpaRepository<EventViewsSyncState, Integer> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO event_views_sync (id, synced_at) VALUES (:id, :syncedAt) " +
+            "ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    void init(Integer id, Instant syncedAt);
+
+    // Сдвигает отметку, только если она не изменилась с чтения; 0 — её уже сдвинул другой экземпляр
+    @Modifying
+    @Transactional
+    @Query("UPDATE EventViewsSyncState s SET s.syncedAt = :syncedAt WHERE s.id = :id AND s.syncedAt = :previous")
+    int moveSyncedAt(Integer id, Instant previous, Instant syncedAt);
+}
@@ -0,0 +1,34 @@
+package ru.practicum.ewm.event.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * HQL-функции полнотекстового поиска PostgreSQL по annotation и description события.
+ * Выражение to_tsvector должно совпадать с idx_events_fts из import.sql, иначе индекс не будет использован.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    private static final String DOCUMENT = "to_tsvector('russian', coalesce(?1, '') || ' ' || coalesce(?2, ''))";
+
+    private static final String QUERY = "websearch_to_tsquery('russian', ?3)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        // fts_match(annotation, description, text)
+        functionContributions.getFunctionRegistry().registerPattern(
+                "fts_match",
+                "(" + DOCUMENT + " @@ " + QUERY + ")",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+
+        // fts_rank(annotation, description, text)
+        functionContributions.getFunctionRegistry().registerPattern(
+                "fts_rank",
+                "ts_rank(" + DOCUMENT + ", " + QUERY + ")",
+                types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.ewm.event.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.event.model.SlotReconciliation;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SlotReconciliationRepository extends JpaRepository<SlotReconciliation, Long> {
+
+    @Query("SELECT r.id FROM SlotReconciliation r WHERE r.dueAt <= :now ORDER BY r.dueAt")
+    List<Long> findDueIds(Instant now);
+
+    // Строку, которую сверяет другой экземпляр, пропускаем
+    @Query(value = "SELECT * FROM slot_reconciliations WHERE id = :id AND due_at <= :now " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<SlotReconciliation> lockDue(Long id, Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SlotReconciliation r SET r.dueAt = :dueAt WHERE r.id = :id")
+    void postpone(Long id, Instant dueAt);
+
+    // 0 — места уже учла сверка или завершивший вызов
+    @Modifying
+    @Query("DELETE FROM SlotReconciliation r WHERE r.id = :id")
+    int deleteAndCount(Long id);
+}
@@ -0,0 +1,270 @@
+package ru.practicum.ewm.event.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.event.repository.EventRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Резервирование мест в памяти для популярных событий.
+ * Места берутся блоками в events.leased_slots (leaseSlots в собственной транзакции), а внутри экземпляра
+ * раздаются CAS-операцией над счётчиком события без обращения к БД. Раз в интервал выданные места
+ * переносятся в confirmed_requests, а неиспользованный остаток блока возвращается (settleLease).
+ * Лимит учитывает и confirmed_requests, и leased_slots, поэтому не превышается при нескольких экземплярах.
+ * Блок записан на экземпляр в event_slot_leases и продлевается при каждом учёте; блок упавшего экземпляра
+ * по истечении lease-ttl возвращает EventSlotLeaseReclaimJob. Места, выданные упавшим экземпляром
+ * за последний интервал учёта, при этом тоже возвращаются, поэтому lease-ttl много больше интервала.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "event-capacity.tracker", name = "enabled", havingValue = "true")
+public class EventCapacityTracker {
+
+    private final EventRepository eventRepository;
+
+    private final int leaseSize;
+
+    private final Duration leaseTtl;
+
+    // Новый владелец на каждый запуск: после перезапуска экземпляр не знает, сколько мест выдал прежний
+    private final String owner = UUID.randomUUID().toString();
+
+    private final Map<Long, Capacity> capacities = new ConcurrentHashMap<>();
+
+    public EventCapacityTracker(EventRepository eventRepository,
+                                @Value("${event-capacity.tracker.lease-size:16}") int leaseSize,
+                                @Value("${event-capacity.tracker.lease-ttl:60s}") Duration leaseTtl) {
+        this.eventRepository = eventRepository;
+        this.leaseSize = leaseSize;
+        this.leaseTtl = leaseTtl;
+    }
+
+    // null — события нет
+    public Integer reserve(Long eventId, int slots) {
+        while (true) {
+            Capacity capacity = capacities.computeIfAbsent(eventId, id -> new Capacity());
+
+            Integer granted = capacity.take(slots);
+            if (granted == null) {
+                // Счётчик выведен из оборота параллельным evict — берём новый
+                continue;
+            }
+            if (granted < slots) {
+                synchronized (capacity) {
+                    // Блок мог уже взять параллельный поток
+                    Integer more = capacity.take(slots - granted);
+                    if (more == null) {
+                        this.release(eventId, granted);
+                        continue;
+                    }
+                    granted += more;
+                    if (granted < slots) {
+                        Integer leased = eventRepository.leaseSlots(eventId, slots - granted, leaseSize,
+                                owner, this.leasedUntil());
+                        if (leased == null) {
+                            this.release(eventId, granted);
+                            return null;
+                        }
+                        if (!capacity.lease(leased)) {
+                            eventRepository.settleLease(eventId, 0, leased, owner, this.leasedUntil());
+                            this.release(eventId, granted);
+                            continue;
+                        }
+                        more = capacity.take(slots - granted);
+                        if (more == null) {
+                            this.release(eventId, granted);
+                            continue;
+                        }
+                        granted += more;
+                    }
+                }
+            }
+
+            log.debug("Резервирование в памяти: eventId={}, запрошено={}, занято={}", eventId, slots, granted);
+            return granted;
+        }
+    }
+
+    public void release(Long eventId, int slots) {
+        if (slots <= 0) {
+            return;
+        }
+        // Счётчик, выведенный из оборота параллельным evict, не принимает места — возвращаем их в новый
+        boolean released;
+        do {
+            released = capacities.computeIfAbsent(eventId, id -> new Capacity()).put(slots);
+        } while (!released);
+    }
+
+    // Лимит события изменился: учитываем выданные места и возвращаем остаток блока,
+    // следующий блок будет взят с новым лимитом
+    public void evict(Long eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // После фиксации: settleLease в своей транзакции ждал бы блокировку строки события,
+            // которую держит вызывающая транзакция
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(eventId);
+                }
+            });
+            return;
+        }
+
+        Capacity capacity = capacities.get(eventId);
+        if (capacity != null) {
+            this.settle(eventId, capacity, true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${event-capacity.tracker.return-interval-ms:1000}")
+    public void returnLeases() {
+        if (!capacities.isEmpty()) {
+            try {
+                eventRepository.extendLeases(owner, this.leasedUntil());
+            } catch (Exception e) {
+                log.warn("Не удалось продлить блоки мест экземпляра {}; message={}", owner, e.getMessage());
+            }
+        }
+        capacities.forEach((eventId, capacity) -> this.settle(eventId, capacity, false));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        capacities.forEach((eventId, capacity) -> this.settle(eventId, capacity, true));
+    }
+
+    private void settle(Long eventId, Capacity capacity, boolean retire) {
+        long consumed;
+        long unused;
+
+        Lock lock = capacity.lock.writeLock();
+        lock.lock();
+        try {
+            // Под блокировкой записи нет незавершённых take/put: оба счётчика согласованы
+            consumed = capacity.consumed.getAndSet(0);
+            unused = capacity.available.getAndSet(0);
+            if (retire) {
+                capacity.retired = true;
+                capacities.remove(eventId, capacity);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (consumed == 0 && unused == 0) {
+            return;
+        }
+
+        try {
+            eventRepository.settleLease(eventId, consumed, unused, owner, this.leasedUntil());
+        } catch (Exception e) {
+            log.warn("Не удалось учесть блок мест для eventId={}: выдано={}, возвращено={}; message={}",
+                    eventId, consumed, unused, e.getMessage());
+            if (!capacity.restore(consumed, unused)) {
+                // Счётчик уже выведен из оборота: переносим несохранённые значения в новый
+                capacities.computeIfAbsent(eventId, id -> new Capacity()).restore(consumed, unused);
+            }
+        }
+    }
+
+    private Instant leasedUntil() {
+        return Instant.now().plus(leaseTtl);
+    }
+
+    private static final class Capacity {
+
+        // Места из leased_slots, ещё не выданные заявкам
+        private final AtomicLong available = new AtomicLong();
+
+        // Места, выданные заявкам и ещё не перенесённые в confirmed_requests
+        private final AtomicLong consumed = new AtomicLong();
+
+        // take и put идут под блокировкой чтения и не мешают друг другу; учёт блока — под блокировкой записи
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private boolean retired;
+
+        // null — счётчик выведен из оборота
+        private Integer take(int slots) {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                if (retired) {
+                    return null;
+                }
+                while (true) {
+                    long current = available.get();
+                    int taken = (int) Math.min(slots, current);
+                    if (taken <= 0) {
+                        return 0;
+                    }
+                    if (available.compareAndSet(current, current - taken)) {
+                        consumed.addAndGet(taken);
+                        return taken;
+                    }
+                }
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        private boolean put(int slots) {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                if (retired) {
+                    return false;
+                }
+                consumed.addAndGet(-slots);
+                available.addAndGet(slots);
+                return true;
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        private boolean lease(int slots) {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                if (retired) {
+                    return false;
+                }
+                available.addAndGet(slots);
+                return true;
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        private boolean restore(long consumedSlots, long unusedSlots) {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                if (retired) {
+                    return false;
+                }
+                consumed.addAndGet(consumedSlots);
+                available.addAndGet(unusedSlots);
+                return true;
+            } finally {
+                readLock.unlock();
+            }
+        }
+    }
+}
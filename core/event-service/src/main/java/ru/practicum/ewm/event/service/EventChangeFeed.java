@@ -0,0 +1,31 @@
+package ru.practicum.ewm.event.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.cache.ChangeFeed;
+import ru.practicum.ewm.event.model.EventChange;
+import ru.practicum.ewm.event.repository.EventChangeRepository;
+
+import java.time.Duration;
+
+/**
+ * Лента изменений событий для локальных кэшей в других сервисах.
+ * Изменения confirmedRequests в ленту не попадают: лимит проверяется атомарным резервированием.
+ */
+@Component
+public class EventChangeFeed extends ChangeFeed<EventChange> {
+
+    public EventChangeFeed(EventChangeRepository eventChangeRepository,
+                           @Value("${event-changes.retention:1h}") Duration retention,
+                           @Value("${event-changes.commit-grace:5s}") Duration commitGrace) {
+        super("событий", eventChangeRepository,
+                (eventId, changedAt) -> new EventChange(null, eventId, changedAt), retention, commitGrace);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${event-changes.purge-interval-ms:600000}")
+    public void purge() {
+        super.purge();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.ewm.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.ewm.user_service.client.UserServiceClient;
+import ru.practicum.ewm.user_service.dto.UserDto;
+import ru.practicum.ewm.user_service.dto.UserShortDto;
+
+import java.util.*;
+
+/**
+ * Заполняет имена инициаторов для страницы событий одним запросом в user-service.
+ * Найденные пользователи запоминаются до конца HTTP-запроса, чтобы не запрашивать их повторно.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventInitiatorEnricher {
+
+    private static final String REQUEST_CACHE_ATTRIBUTE = EventInitiatorEnricher.class.getName() + ".users";
+
+    private final UserServiceClient userServiceClient;
+
+    public void enrich(Collection<UserShortDto> initiators) {
+        Map<Long, UserDto> users = this.requestCache();
+
+        Set<Long> missing = new HashSet<>();
+        for (UserShortDto initiator : initiators) {
+            if (initiator != null && initiator.getId() != null && !users.containsKey(initiator.getId())) {
+                missing.add(initiator.getId());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            try {
+                List<UserDto> found = userServiceClient.getUsersByIds(List.copyOf(missing));
+                if (found != null) {
+                    found.forEach(user -> users.put(user.getId(), user));
+                }
+            } catch (Exception e) {
+                // Без имён страница всё равно отдаётся: id инициатора уже заполнен маппером
+                log.warn("Не удалось получить инициаторов событий {}; message={}", missing, e.getMessage());
+            }
+        }
+
+        for (UserShortDto initiator : initiators) {
+            if (initiator != null && users.containsKey(initiator.getId())) {
+                initiator.setName(users.get(initiator.getId()).getName());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, UserDto> requestCache() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new HashMap<>();
+        }
+
+        Map<Long, UserDto> users = (Map<Long, UserDto>) attributes.getAttribute(REQUEST_CACHE_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (users == null) {
+            users = new HashMap<>();
+            attributes.setAttribute(REQUEST_CACHE_ATTRIBUTE, users, RequestAttributes.SCOPE_REQUEST);
+        }
+        return users;
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.ewm.event.service;
 import jakarta.servlet.http.HttpServletRequest;
 import ru.practicum.ewm.event.dto.*;
 import ru.practicum.ewm.event_service.dto.EventDtoForRequestService;
+import ru.practicum.ewm.event_service.dto.SlotReservationDto;
 import ru.practicum.ewm.request_service.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.ewm.request_service.dto.ParticipationRequestDto;
 import ru.practicum.ewm.request_service.dto.UpdRequestsStatusResult;
@@ -16,19 +17,19 @@ public interface EventService {
 
     EventFullDto getByUser(Long userId, Long eventId);
 
-    List<EventShortDto> getAllByUser(Long userId, int from, int size);
+    KeysetPage<EventShortDto> getAllByUser(Long userId, int from, int size, String cursor);
 
     EventFullDto updateByUser(Long userId, Long eventId, UpdEventUserRequest updEventUserRequest);
 
     // Admin API:
     EventFullDto updateByAdmin(Long eventId, UpdEventAdminRequest updEventAdminRequest);
 
-    List<EventFullDto> searchForAdmin(AdminEventSearchParams params);
+    KeysetPage<EventFullDto> searchForAdmin(AdminEventSearchParams params);
 
     // Public API:
     EventFullDto getPublicBy(Long eventId, HttpServletRequest request);
 
-    List<EventFullDto> getPublicBy(UserEventSearchParams params, HttpServletRequest request);
+    KeysetPage<EventFullDto> getPublicBy(UserEventSearchParams params, HttpServletRequest request);
 
     List<ParticipationRequestDto> getEventRequests(Long userId, Long eventId);
 
@@ -36,5 +37,9 @@ public interface EventService {
 
     EventDtoForRequestService incrementConfirmedRequests(Long eventId);
 
+    SlotReservationDto reserveSlots(Long eventId, int slots);
+
+    void releaseSlots(Long eventId, int slots);
+
     EventDtoForRequestService getEventDtoForRequestService(Long eventId);
 }
\ No newline at end of file
@@ -1,18 +1,19 @@
 package ru.practicum.ewm.event.service;
 
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.Expressions;
+import feign.FeignException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.ewm.ReqStatsParams;
-import ru.practicum.ewm.StatsDto;
 import ru.practicum.ewm.category.model.Category;
 import ru.practicum.ewm.category.repository.CategoryRepository;
 import ru.practicum.ewm.client.StatsClient;
@@ -21,9 +22,13 @@ import ru.practicum.ewm.event.mapper.EventMapper;
 import ru.practicum.ewm.event.model.Event;
 import ru.practicum.ewm.event.model.EventState;
 import ru.practicum.ewm.event.model.QEvent;
+import ru.practicum.ewm.event.repository.EventFullText;
 import ru.practicum.ewm.event.repository.EventRepository;
+import ru.practicum.ewm.event.repository.EventViewsRepository;
 import ru.practicum.ewm.event_service.dto.EventDtoForRequestService;
+import ru.practicum.ewm.event_service.dto.SlotReservationDto;
 import ru.practicum.ewm.request_service.client.RequestServiceClient;
+import ru.practicum.ewm.request_service.dto.ConfirmRequestsRequest;
 import ru.practicum.ewm.request_service.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.ewm.request_service.dto.ParticipationRequestDto;
 import ru.practicum.ewm.request_service.dto.UpdRequestStatus;
@@ -31,14 +36,18 @@ import ru.practicum.ewm.request_service.dto.UpdRequestsStatusResult;
 import ru.practicum.ewm.request_service.enums.RequestStatus;
 import ru.practicum.ewm.user_service.client.UserServiceClient;
 import ru.practicum.ewm.user_service.dto.UserDto;
+import ru.practicum.ewm.user_service.exception.BadRequestException;
 import ru.practicum.ewm.user_service.exception.ConflictException;
 import ru.practicum.ewm.user_service.exception.NotFoundException;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
 import static java.time.ZoneOffset.UTC;
 import static ru.practicum.ewm.event.model.EventState.CANCELED;
@@ -51,6 +60,7 @@ public class EventServiceImpl implements EventService {
 
     private final UserServiceClient userServiceClient;
     private final EventRepository eventRepository;
+    private final EventViewsRepository eventViewsRepository;
     private final RequestServiceClient requestServiceClient;
     private final CategoryRepository categoryRepository;
 
@@ -58,6 +68,16 @@ public class EventServiceImpl implements EventService {
 
     private final StatsClient statsClient;
 
+    private final EventViewsService eventViewsService;
+
+    private final EventInitiatorEnricher eventInitiatorEnricher;
+
+    private final Optional<EventCapacityTracker> capacityTracker;
+
+    private final EventChangeFeed eventChangeFeed;
+
+    private final SlotReconciler slotReconciler;
+
     // Private API:
     @Override
     @Transactional
@@ -83,14 +103,21 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
-    public List<EventShortDto> getAllByUser(Long userId, int from, int size) {
-        log.debug("Метод getAllByUser(); userId={}", userId);
+    public KeysetPage<EventShortDto> getAllByUser(Long userId, int from, int size, String cursor) {
+        log.debug("Метод getAllByUser(); userId={}, cursor={}", userId, cursor);
+
+        if (cursor != null) {
+            BooleanExpression condition = QEvent.event.initiatorId.eq(userId);
+            Slice<Event> events = this.findAfter(condition, EventCursor.decode(cursor), size, false);
+
+            return this.toKeysetPage(events, this::toShortDtos);
+        }
 
         int page = from / size;
         Pageable pageable = PageRequest.of(page, size, Sort.by("eventDate").descending());
-        Page<Event> events = eventRepository.findAllByInitiatorId(userId, pageable);
+        Slice<Event> events = eventRepository.findAllByInitiatorId(userId, pageable);
 
-        return events.map(eventMapper::toShortDto).getContent();
+        return new KeysetPage<>(this.toShortDtos(events.getContent()), null);
     }
 
     @Override
@@ -100,7 +127,7 @@ public class EventServiceImpl implements EventService {
         Event event = eventRepository.findByIdAndInitiatorId(eventId, userId)
                 .orElseThrow(() -> new NotFoundException("Event id={} у user id={} не найдено", eventId, userId));
 
-        return eventMapper.toFullDto(event);
+        return this.toFullDto(event);
     }
 
     @Override
@@ -136,6 +163,8 @@ public class EventServiceImpl implements EventService {
 
         eventMapper.updateFromDto(updDto, event);
         event = eventRepository.save(event);
+        capacityTracker.ifPresent(tracker -> tracker.evict(eventId));
+        eventChangeFeed.record(eventId);
 
         log.debug("Метод userUpdate(); Event обновлен в репозитории event={}", event);
 
@@ -152,17 +181,15 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
-    @Transactional
+    // Без общей транзакции: блокировка строки события при резервировании мест
+    // не должна удерживаться на время вызова request-service
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UpdRequestsStatusResult updateRequests(Long userId, Long eventId, EventRequestStatusUpdateRequest updDto) {
         log.debug("Метод updateRequests(), userId={}, eventId={}", userId, eventId);
 
+        this.findEventBy(eventId);
 
-        Event event = this.findEventBy(eventId);
-        List<ParticipationRequestDto> requestDtos = requestServiceClient.getRequestsByIds(
-                updDto.getRequestIds().stream().toList()
-        );
-
-        if (requestDtos.isEmpty()) {
+        if (updDto.getRequestIds().isEmpty()) {
             return UpdRequestsStatusResult.builder()
                     .confirmedRequests(List.of())
                     .rejectedRequests(List.of())
@@ -173,58 +200,53 @@ public class EventServiceImpl implements EventService {
 
         switch (updDto.getStatus()) {
             case UpdRequestStatus.CONFIRMED -> {
-                if (event.getConfirmedRequests() == event.getParticipantLimit().longValue()) {
+                // Места занимаются атомарно в БД, поэтому параллельные подтверждения не превышают лимит
+                int availableSlots = this.reserveSlots(eventId, updDto.getRequestIds().size()).getGranted();
+                if (availableSlots == 0) {
                     throw new ConflictException("На Event id={} больше нет мест", eventId);
                 }
 
-                int availableSlots = event.getParticipantLimit() == 0
-                        ? requestDtos.size()
-                        : event.getParticipantLimit().intValue() - event.getConfirmedRequests().intValue();
-
-                List<Long> toConfirmIds = requestDtos.stream()
-                        .limit(availableSlots)
-                        .map(ParticipationRequestDto::getId)
-                        .toList();
-
-                List<Long> toRejectIds = requestDtos.size() > availableSlots
-                        ? requestDtos.stream()
-                        .skip(availableSlots)
-                        .map(ParticipationRequestDto::getId)
-                        .toList()
-                        : List.of();
-
-                List<ParticipationRequestDto> confirmedDtos = List.of();
-                List<ParticipationRequestDto> rejectedDtos = List.of();
-
-                if (!toConfirmIds.isEmpty()) {
-                    confirmedDtos = requestServiceClient.updateRequestStatuses(
-                            EventRequestStatusUpdateRequest.builder()
-                                    .requestIds(new HashSet<>(toConfirmIds))
-                                    .status(UpdRequestStatus.CONFIRMED)
-                                    .build()
-                    );
+                // Запись сверки фиксируется до вызова: при потере ответа или перезапуске места вернёт сверка
+                Long reconciliationId;
+                try {
+                    reconciliationId = slotReconciler.register(eventId, List.copyOf(updDto.getRequestIds()),
+                            availableSlots);
+                } catch (RuntimeException e) {
+                    this.releaseSlots(eventId, availableSlots);
+                    throw e;
                 }
 
-                if (!toRejectIds.isEmpty()) {
-                    rejectedDtos = requestServiceClient.updateRequestStatuses(
-                            EventRequestStatusUpdateRequest.builder()
-                                    .requestIds(new HashSet<>(toRejectIds))
-                                    .status(UpdRequestStatus.REJECTED)
-                                    .build()
-                    );
+                // Подтверждение в пределах занятых мест и отклонение остальных — одна транзакция в request-service
+                try {
+                    result = requestServiceClient.confirmRequests(eventId, ConfirmRequestsRequest.builder()
+                            .requestIds(updDto.getRequestIds())
+                            .slots(availableSlots)
+                            .build());
+                } catch (FeignException e) {
+                    if (e.status() >= 400 && e.status() < 500) {
+                        // Ответ 4xx — транзакция request-service откатилась, ни одна заявка не подтверждена
+                        slotReconciler.complete(reconciliationId, eventId, availableSlots);
+                        throw new ConflictException("Заявки Event id={} не подтверждены: {}", eventId, e.getMessage());
+                    }
+                    // Таймаут или 5xx: подтверждение могло быть зафиксировано, места возвращает сверка
+                    slotReconciler.postpone(reconciliationId, eventId, availableSlots);
+                    throw e;
                 }
 
-                // Обновляем количество подтверждённых
-                event.setConfirmedRequests(event.getConfirmedRequests() + confirmedDtos.size());
-                eventRepository.save(event);
+                if (result == null) {
+                    slotReconciler.postpone(reconciliationId, eventId, availableSlots);
+                    throw new NotFoundException("Не удалось подтвердить заявки: сервис request-service недоступен");
+                }
 
-                result = UpdRequestsStatusResult.builder()
-                        .confirmedRequests(confirmedDtos)
-                        .rejectedRequests(rejectedDtos)
-                        .build();
+                slotReconciler.complete(reconciliationId, eventId,
+                        availableSlots - Math.min(result.getConfirmedRequests().size(), availableSlots));
             }
 
             case UpdRequestStatus.REJECTED -> {
+                List<ParticipationRequestDto> requestDtos = requestServiceClient.getRequestsByIds(
+                        updDto.getRequestIds().stream().toList()
+                );
+
                 if (requestDtos.stream().anyMatch(dto ->
                         dto.getStatus() == RequestStatus.CONFIRMED)) {
                     throw new ConflictException("Нельзя отклонить подтверждённые заявки");
@@ -268,6 +290,7 @@ public class EventServiceImpl implements EventService {
                     if (event.getState().equals(EventState.PENDING)) {
                         event.setState(EventState.PUBLISHED);
                         event.setPublishedOn(Instant.now());
+                        eventViewsRepository.initViews(event.getId());
                     } else if (event.getState().equals(CANCELED) ||
                             event.getState().equals(EventState.PUBLISHED)) {
                         throw new ConflictException("Event id={} нельзя опубликовать; его status={}",
@@ -290,6 +313,8 @@ public class EventServiceImpl implements EventService {
         }
 
         event = eventRepository.save(event);
+        capacityTracker.ifPresent(tracker -> tracker.evict(eventId));
+        eventChangeFeed.record(eventId);
 
         log.debug("Метод adminUpdate(); Event обновлен в репозитории event={}", event);
 
@@ -297,7 +322,7 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
-    public List<EventFullDto> searchForAdmin(AdminEventSearchParams params) {
+    public KeysetPage<EventFullDto> searchForAdmin(AdminEventSearchParams params) {
         log.debug("Метод adminSearchEvents; {}", params);
 
         QEvent event = QEvent.event;
@@ -331,12 +356,19 @@ public class EventServiceImpl implements EventService {
 
         log.debug("{}", finalCondition);
 
+        if (params.getCursor() != null) {
+            Slice<Event> events = this.findAfter(finalCondition, EventCursor.decode(params.getCursor()),
+                    params.getSize(), true);
+
+            return this.toKeysetPage(events, this::toFullDtos);
+        }
+
         int page = params.getFrom() / params.getSize();
         Pageable pageable = PageRequest.of(page, params.getSize());
 
-        Page<Event> events = eventRepository.findAll(finalCondition, pageable);
+        Slice<Event> events = eventRepository.findSlice(finalCondition, pageable);
 
-        return events.map(eventMapper::toFullDto).getContent();
+        return new KeysetPage<>(this.toFullDtos(events.getContent()), null);
     }
 
 
@@ -349,21 +381,31 @@ public class EventServiceImpl implements EventService {
                 .orElseThrow(() -> new NotFoundException("Опубликованного Event id={} нет", eventId));
 
         statsClient.hit(request);
-        this.setViewsForEvent(event);
+        eventViewsService.refreshAfterHit(eventId);
 
-        return eventMapper.toFullDto(event);
+        return this.toFullDto(event);
     }
 
     @Override
-    public List<EventFullDto> getPublicBy(UserEventSearchParams params, HttpServletRequest request) {
+    public KeysetPage<EventFullDto> getPublicBy(UserEventSearchParams params, HttpServletRequest request) {
         log.debug("Метод publicSearchMany; {}", params);
 
+        if (params.getCursor() != null && params.getSort() != UserEventSearchParams.Sort.EVENT_DATE) {
+            throw new BadRequestException("cursor поддерживается только для sort=EVENT_DATE");
+        }
+
         QEvent event = QEvent.event;
         List<BooleanExpression> conditions = new ArrayList<>();
 
         conditions.add(event.state.eq(EventState.PUBLISHED));
 
-        if (params.getText() != null && !params.getText().isEmpty()) {
+        boolean hasText = params.getText() != null && !params.getText().isBlank();
+        boolean relevanceSort = params.getSort() == UserEventSearchParams.Sort.RELEVANCE;
+        boolean fullText = hasText && (Boolean.TRUE.equals(params.getFullText()) || relevanceSort);
+
+        if (fullText) {
+            conditions.add(EventFullText.matches(event, params.getText()));
+        } else if (hasText) {
             conditions.add(
                     event.annotation.containsIgnoreCase(params.getText())
                             .or(event.description.containsIgnoreCase(params.getText())));
@@ -401,34 +443,73 @@ public class EventServiceImpl implements EventService {
 
         log.debug("{}", finalCondition);
 
-        int page = params.getFrom() / params.getSize();
+        if (params.getCursor() != null) {
+            Slice<Event> events = this.findAfter(finalCondition, EventCursor.decode(params.getCursor()),
+                    params.getSize(), true);
 
-        Pageable pageable = null;
+            statsClient.hit(request);
 
-        switch (params.getSort()) {
-            case EVENT_DATE -> pageable =
-                    PageRequest.of(page, params.getSize(), Sort.by(Sort.Direction.ASC, "eventDate"));
-            case VIEWS -> pageable =
-                    PageRequest.of(page, params.getSize(), Sort.by(Sort.Direction.DESC, "views"));
+            return this.toKeysetPage(events, this::toFullDtos);
         }
 
-        Page<Event> events = eventRepository.findAll(finalCondition, pageable);
+        int page = params.getFrom() / params.getSize();
+
+        List<Event> events = switch (params.getSort()) {
+            case EVENT_DATE -> eventRepository.findSlice(finalCondition,
+                    PageRequest.of(page, params.getSize()), event.eventDate.asc()).getContent();
+            case VIEWS -> eventRepository.findAllOrderByViews(finalCondition,
+                    PageRequest.of(page, params.getSize()));
+            case RELEVANCE -> fullText
+                    ? eventRepository.findAllOrderByRelevance(finalCondition, params.getText(),
+                    PageRequest.of(page, params.getSize()))
+                    : eventRepository.findSlice(finalCondition,
+                    PageRequest.of(page, params.getSize()), event.eventDate.asc()).getContent();
+        };
 
         statsClient.hit(request);
 
-        return events.map(eventMapper::toFullDto).getContent();
+        return new KeysetPage<>(this.toFullDtos(events), null);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EventDtoForRequestService incrementConfirmedRequests(Long eventId) {
+        if (this.reserveSlots(eventId, 1).getGranted() == 0) {
+            throw new ConflictException("Достигнут лимит запросов на участие в событии id={}", eventId);
+        }
+
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException("Event not found"));
-        event.setConfirmedRequests(event.getConfirmedRequests() + 1);
-        eventRepository.save(event);
         return eventMapper.toEventDtoForRequestService(event);
     }
 
+    @Override
+    // Места занимаются в транзакциях EventRepository: откат внешней транзакции
+    // не вернул бы в БД блок, уже выданный в память EventCapacityTracker
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SlotReservationDto reserveSlots(Long eventId, int slots) {
+        log.debug("Метод reserveSlots(); eventId={}, slots={}", eventId, slots);
+
+        Integer granted = capacityTracker
+                .map(tracker -> tracker.reserve(eventId, slots))
+                .orElseGet(() -> eventRepository.reserveSlots(eventId, slots));
+        if (granted == null) {
+            throw new NotFoundException("Объект Event id={} не найден", eventId);
+        }
+
+        return new SlotReservationDto(eventId, slots, granted);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void releaseSlots(Long eventId, int slots) {
+        log.debug("Метод releaseSlots(); eventId={}, slots={}", eventId, slots);
+
+        capacityTracker.ifPresentOrElse(
+                tracker -> tracker.release(eventId, slots),
+                () -> eventRepository.releaseSlots(eventId, slots));
+    }
+
     @Override
     public EventDtoForRequestService getEventDtoForRequestService(Long eventId) {
         Event event = eventRepository.findById(eventId)
@@ -475,14 +556,66 @@ public class EventServiceImpl implements EventService {
         }
     }
 
-    private void setViewsForEvent(Event event) {
-        List<StatsDto> stats = statsClient.getStats(ReqStatsParams.builder()
-                .start(LocalDateTime.now().minusYears(100))
-                .end(LocalDateTime.now().plusYears(1))
-                .uris(List.of("/events/" + event.getId()))
-                .unique(true)
-                .build());
+    // Keyset-выборка по (eventDate, id) без OFFSET: следующая страница начинается строго после курсора
+    private Slice<Event> findAfter(BooleanExpression condition, EventCursor cursor, int size, boolean ascending) {
+        QEvent event = QEvent.event;
+
+        if (cursor != null) {
+            condition = condition.and(ascending
+                    ? event.eventDate.gt(cursor.eventDate())
+                    .or(event.eventDate.eq(cursor.eventDate()).and(event.id.gt(cursor.id())))
+                    : event.eventDate.lt(cursor.eventDate())
+                    .or(event.eventDate.eq(cursor.eventDate()).and(event.id.lt(cursor.id()))));
+        }
+
+        OrderSpecifier<?>[] orders = ascending
+                ? new OrderSpecifier<?>[]{event.eventDate.asc(), event.id.asc()}
+                : new OrderSpecifier<?>[]{event.eventDate.desc(), event.id.desc()};
+
+        return eventRepository.findSlice(condition, PageRequest.of(0, size), orders);
+    }
+
+    private <T> KeysetPage<T> toKeysetPage(Slice<Event> events, Function<List<Event>, List<T>> mapper) {
+        String nextCursor = null;
+        if (events.hasNext()) {
+            Event last = events.getContent().getLast();
+            nextCursor = new EventCursor(last.getEventDate(), last.getId()).encode();
+        }
+
+        return new KeysetPage<>(mapper.apply(events.getContent()), nextCursor);
+    }
+
+    private EventFullDto toFullDto(Event event) {
+        EventFullDto dto = eventMapper.toFullDto(event);
+        dto.setViews(eventViewsService.getViews(List.of(event.getId())).getOrDefault(event.getId(), 0L));
+        eventInitiatorEnricher.enrich(Collections.singletonList(dto.getInitiator()));
 
-        event.setViews(stats.getFirst().getHits());
+        return dto;
+    }
+
+    private List<EventFullDto> toFullDtos(List<Event> events) {
+        Map<Long, Long> views = eventViewsService.getViews(events.stream().map(Event::getId).toList());
+
+        List<EventFullDto> dtos = new ArrayList<>(events.size());
+        for (Event event : events) {
+            EventFullDto dto = eventMapper.toFullDto(event);
+            dto.setViews(views.getOrDefault(event.getId(), 0L));
+            dtos.add(dto);
+        }
+        eventInitiatorEnricher.enrich(dtos.stream().map(EventFullDto::getInitiator).toList());
+        return dtos;
+    }
+
+    private List<EventShortDto> toShortDtos(List<Event> events) {
+        Map<Long, Long> views = eventViewsService.getViews(events.stream().map(Event::getId).toList());
+
+        List<EventShortDto> dtos = new ArrayList<>(events.size());
+        for (Event event : events) {
+            EventShortDto dto = eventMapper.toShortDto(event);
+            dto.setViews(views.getOrDefault(event.getId(), 0L));
+            dtos.add(dto);
+        }
+        eventInitiatorEnricher.enrich(dtos.stream().map(EventShortDto::getInitiator).toList());
+        return dtos;
     }
-}
\ No newline at end of file
+}
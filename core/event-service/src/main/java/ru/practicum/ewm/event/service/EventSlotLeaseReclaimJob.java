@@ -0,0 +1,34 @@
+package ru.practicum.ewm.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.event.repository.EventRepository;
+
+import java.time.Instant;
+
+/**
+ * Возвращает в лимит событий блоки мест, которые экземпляр EventCapacityTracker перестал продлевать
+ * (экземпляр упал или потерял связь с БД). Работает на всех экземплярах, даже с выключенным трекером:
+ * блоки могли остаться от прежних запусков.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventSlotLeaseReclaimJob {
+
+    private final EventRepository eventRepository;
+
+    @Scheduled(fixedDelayString = "${event-capacity.lease-reclaim.interval-ms:30000}")
+    public void reclaim() {
+        try {
+            int events = eventRepository.reclaimExpiredLeases(Instant.now());
+            if (events > 0) {
+                log.info("Возвращены просроченные блоки мест: событий={}", events);
+            }
+        } catch (Exception e) {
+            log.warn("Не удалось вернуть просроченные блоки мест; message={}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.ewm.event.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "event-views.cache")
+public class EventViewsCacheProperties {
+
+    private long maximumSize = 10_000;
+
+    // Значение старше refreshAfterWrite отдаётся из кэша и перезагружается в фоне
+    private Duration refreshAfterWrite = Duration.ofSeconds(30);
+
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+    // Через сколько после просмотра перечитать значение: hit уходит в stats-server пачкой раз в flush-interval
+    private Duration hitRefreshDelay = Duration.ofSeconds(2);
+}
@@ -0,0 +1,13 @@
+package ru.practicum.ewm.event.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface EventViewsService {
+
+    // Уникальные просмотры /events/{id}; при недоступности stats-server возвращается пустая карта
+    Map<Long, Long> getViews(Collection<Long> eventIds);
+
+    // Просмотр события отправлен асинхронно: значение в кэше перечитывается в фоне, когда hit дойдёт до stats-server
+    void refreshAfterHit(Long eventId);
+}
@@ -0,0 +1,137 @@
+package ru.practicum.ewm.event.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.practicum.ewm.ReqStatsParams;
+import ru.practicum.ewm.StatsDto;
+import ru.practicum.ewm.client.StatsClient;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class EventViewsServiceImpl implements EventViewsService {
+
+    private static final String EVENT_URI_PREFIX = "/events/";
+
+    private final StatsClient statsClient;
+
+    private final LoadingCache<Long, Long> viewsCache;
+
+    private final Executor hitRefreshExecutor;
+
+    // События с уже запланированным перечитыванием: популярное событие не плодит задачи на каждый просмотр
+    private final Set<Long> pendingRefresh = ConcurrentHashMap.newKeySet();
+
+    public EventViewsServiceImpl(StatsClient statsClient,
+                                 EventViewsCacheProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.statsClient = statsClient;
+        this.viewsCache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .refreshAfterWrite(properties.getRefreshAfterWrite())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build(new ViewsLoader());
+
+        this.hitRefreshExecutor = CompletableFuture.delayedExecutor(
+                properties.getHitRefreshDelay().toMillis(), TimeUnit.MILLISECONDS);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, viewsCache, "event-views");
+    }
+
+    @Override
+    public Map<Long, Long> getViews(Collection<Long> eventIds) {
+        log.debug("Метод getViews(); eventIds={}", eventIds);
+
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
+
+        try {
+            return viewsCache.getAll(eventIds);
+        } catch (Exception e) {
+            log.warn("Не удалось получить просмотры для eventIds={}; message={}", eventIds, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    @Override
+    public void refreshAfterHit(Long eventId) {
+        if (!pendingRefresh.add(eventId)) {
+            return;
+        }
+
+        hitRefreshExecutor.execute(() -> {
+            pendingRefresh.remove(eventId);
+            // Загрузка идёт в фоне, до её окончания чтения получают прежнее значение
+            viewsCache.refresh(eventId);
+        });
+    }
+
+    private Map<Long, Long> fetchViews(Collection<Long> eventIds) {
+        // Один запрос к stats-server на все отсутствующие в кэше события
+        List<String> uris = eventIds.stream()
+                .distinct()
+                .map(id -> EVENT_URI_PREFIX + id)
+                .toList();
+
+        List<StatsDto> stats = statsClient.getStats(ReqStatsParams.builder()
+                .start(LocalDateTime.now().minusYears(100))
+                .end(LocalDateTime.now().plusYears(1))
+                .uris(uris)
+                .unique(true)
+                .build());
+
+        // События без просмотров тоже кэшируются, иначе они запрашивались бы каждый раз
+        Map<Long, Long> views = new HashMap<>();
+        eventIds.forEach(id -> views.put(id, 0L));
+        for (StatsDto dto : stats) {
+            Long eventId = toEventId(dto.getUri());
+            if (eventId != null && views.containsKey(eventId)) {
+                views.merge(eventId, dto.getHits(), Long::sum);
+            }
+        }
+
+        return views;
+    }
+
+    private Long toEventId(String uri) {
+        if (uri == null || !uri.startsWith(EVENT_URI_PREFIX)) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(uri.substring(EVENT_URI_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private class ViewsLoader implements CacheLoader<Long, Long> {
+
+        @Override
+        public Long load(Long eventId) {
+            return fetchViews(List.of(eventId)).get(eventId);
+        }
+
+        @Override
+        public Map<Long, Long> loadAll(Set<? extends Long> eventIds) {
+            return fetchViews(List.copyOf(eventIds));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.ewm.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.ReqStatsParams;
+import ru.practicum.ewm.StatsDto;
+import ru.practicum.ewm.client.StatsClient;
+import ru.practicum.ewm.event.repository.EventViewsRepository;
+import ru.practicum.ewm.event.repository.EventViewsSyncStateRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Переносит уникальные просмотры /events/{id} из stats-server в таблицу event_views,
+ * по которой выполняется сортировка VIEWS в публичном поиске.
+ * Синхронизацию за интервал выполняет один экземпляр: он сдвигает отметку event_views_sync условным UPDATE.
+ * Пересчитываются только события, у которых после прошлой синхронизации были hit; просмотры берутся
+ * приближённой статистикой по HyperLogLog-скетчам, для сортировки её точности достаточно.
+ * Запросы к stats-server идут вне транзакции, в БД пишется только результат.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventViewsSyncJob {
+
+    private static final Pattern EVENT_URI = Pattern.compile("^/events/(\\d+)$");
+
+    private static final int STATE_ID = 1;
+
+    // uris передаются в строке запроса GET /stats
+    private static final int URIS_PER_REQUEST = 200;
+
+    private final StatsClient statsClient;
+
+    private final EventViewsRepository eventViewsRepository;
+
+    private final EventViewsSyncStateRepository syncStateRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${event-views.sync.interval-ms:60000}")
+    private long intervalMs;
+
+    // hit доходят до stats-server с задержкой (пачками, из журнала после сбоя); окно берётся с этим запасом
+    @Value("${event-views.sync.hit-lateness:1h}")
+    private Duration hitLateness;
+
+    @Scheduled(fixedDelayString = "${event-views.sync.interval-ms:60000}",
+            initialDelayString = "${event-views.sync.initial-delay-ms:30000}")
+    public void sync() {
+        // Точность timestamp в PostgreSQL: отметка должна читаться обратно без изменений
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        syncStateRepository.init(STATE_ID, Instant.EPOCH);
+        Instant previous = syncStateRepository.findById(STATE_ID).orElseThrow().getSyncedAt();
+        // Запас в половину интервала: расписания экземпляров сдвинуты друг относительно друга
+        if (previous.isAfter(now.minus(Duration.ofMillis(intervalMs / 2)))) {
+            log.debug("Синхронизация просмотров пропущена: выполнена в {}", previous);
+            return;
+        }
+        if (syncStateRepository.moveSyncedAt(STATE_ID, previous, now) == 0) {
+            log.debug("Синхронизация просмотров пропущена: её выполняет другой экземпляр");
+            return;
+        }
+
+        Map<Long, Long> views;
+        try {
+            views = Instant.EPOCH.equals(previous) ? this.fetchAllViews() : this.fetchChangedViews(previous);
+        } catch (Exception e) {
+            // Отметка возвращается: следующий запуск возьмёт пропущенное окно
+            syncStateRepository.moveSyncedAt(STATE_ID, now, previous);
+            log.warn("Синхронизация просмотров пропущена, stats-server недоступен; message={}", e.getMessage());
+            return;
+        }
+
+        Integer updated = transactionTemplate.execute(status -> eventViewsRepository.upsertAll(views));
+
+        log.debug("Синхронизация просмотров: событий={}, изменено={}", views.size(), updated);
+    }
+
+    // Первая синхронизация: вся история
+    private Map<Long, Long> fetchAllViews() {
+        return toViews(statsClient.getStats(ReqStatsParams.builder()
+                .start(LocalDateTime.now().minusYears(100))
+                .end(LocalDateTime.now().plusYears(1))
+                .unique(true)
+                .approximate(true)
+                .build()));
+    }
+
+    private Map<Long, Long> fetchChangedViews(Instant previous) {
+        // Какие события просматривали после прошлой синхронизации: неуникальный запрос идёт по корзинам hit_rollups
+        LocalDateTime from = LocalDateTime.ofInstant(previous.minus(hitLateness), ZoneId.systemDefault());
+        List<Long> changed = new ArrayList<>(toViews(statsClient.getStats(ReqStatsParams.builder()
+                .start(from)
+                .end(LocalDateTime.now().plusYears(1))
+                .build())).keySet());
+
+        // Уникальные просмотры не складываются по окнам, поэтому для изменившихся событий считаются заново
+        Map<Long, Long> views = new HashMap<>();
+        for (int i = 0; i < changed.size(); i += URIS_PER_REQUEST) {
+            List<String> uris = changed.subList(i, Math.min(i + URIS_PER_REQUEST, changed.size())).stream()
+                    .map(eventId -> "/events/" + eventId)
+                    .toList();
+            views.putAll(toViews(statsClient.getStats(ReqStatsParams.builder()
+                    .start(LocalDateTime.now().minusYears(100))
+                    .end(LocalDateTime.now().plusYears(1))
+                    .uris(uris)
+                    .unique(true)
+                    .approximate(true)
+                    .build())));
+        }
+        return views;
+    }
+
+    private static Map<Long, Long> toViews(List<StatsDto> stats) {
+        Map<Long, Long> views = new HashMap<>();
+        for (StatsDto dto : stats) {
+            Matcher matcher = EVENT_URI.matcher(dto.getUri());
+            if (matcher.matches()) {
+                views.merge(Long.parseLong(matcher.group(1)), dto.getHits(), Long::sum);
+            }
+        }
+        return views;
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.ewm.event.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.event.model.SlotReconciliation;
+import ru.practicum.ewm.event.repository.EventRepository;
+import ru.practicum.ewm.event.repository.SlotReconciliationRepository;
+import ru.practicum.ewm.request_service.client.RequestServiceClient;
+import ru.practicum.ewm.request_service.dto.ParticipationRequestDto;
+import ru.practicum.ewm.request_service.enums.RequestStatus;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Возврат мест, занятых под подтверждение заявок, исход которого неизвестен: request-service
+ * не ответил или ответ потерян, а транзакция подтверждения могла быть зафиксирована.
+ * Занятые места записываются в slot_reconciliations до вызова request-service, поэтому сверка
+ * переживает перезапуск экземпляра. Спустя задержку статусы заявок перечитываются, и возвращаются
+ * только места сверх подтверждённых. Пока сверка не удалась, места остаются занятыми: лимит события
+ * не превышается. Запись удаляется вместе с возвратом мест, и места возвращает тот, кто её удалил.
+ */
+@Slf4j
+@Component
+public class SlotReconciler {
+
+    private final RequestServiceClient requestServiceClient;
+
+    private final EventRepository eventRepository;
+
+    private final SlotReconciliationRepository reconciliationRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Optional<EventCapacityTracker> capacityTracker;
+
+    private final long delayMs;
+
+    public SlotReconciler(RequestServiceClient requestServiceClient,
+                          EventRepository eventRepository,
+                          SlotReconciliationRepository reconciliationRepository,
+                          TransactionTemplate transactionTemplate,
+                          Optional<EventCapacityTracker> capacityTracker,
+                          @Value("${event-capacity.reconcile.delay-ms:30000}") long delayMs) {
+        this.requestServiceClient = requestServiceClient;
+        this.eventRepository = eventRepository;
+        this.reconciliationRepository = reconciliationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.capacityTracker = capacityTracker;
+        this.delayMs = delayMs;
+    }
+
+    // Вызывается до подтверждения заявок; возвращает id записи для complete или postpone
+    public Long register(Long eventId, List<Long> requestIds, int reservedSlots) {
+        return reconciliationRepository.save(new SlotReconciliation(null, eventId,
+                requestIds.toArray(Long[]::new), reservedSlots, Instant.now().plusMillis(delayMs))).getId();
+    }
+
+    // Исход известен: unused мест возвращаются, если их ещё не вернула сверка
+    public void complete(Long reconciliationId, Long eventId, int unused) {
+        Boolean owned = transactionTemplate.execute(status -> {
+            if (reconciliationRepository.deleteAndCount(reconciliationId) == 0) {
+                return false;
+            }
+            this.releaseInDb(eventId, unused);
+            return true;
+        });
+        if (Boolean.TRUE.equals(owned)) {
+            this.releaseInTracker(eventId, unused);
+        }
+    }
+
+    // Исход неизвестен: сверка через delay-ms после ответа, а не после записи
+    public void postpone(Long reconciliationId, Long eventId, int reservedSlots) {
+        log.warn("Исход подтверждения заявок неизвестен: eventId={}, мест занято={}, сверка через {} мс",
+                eventId, reservedSlots, delayMs);
+        reconciliationRepository.postpone(reconciliationId, Instant.now().plusMillis(delayMs));
+    }
+
+    @Scheduled(fixedDelayString = "${event-capacity.reconcile.interval-ms:5000}")
+    public void reconcile() {
+        for (Long id : reconciliationRepository.findDueIds(Instant.now())) {
+            try {
+                this.tryReconcile(id);
+            } catch (Exception e) {
+                log.warn("Сверка мест id={} не выполнена: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    // Запись заблокирована на время запроса к request-service: её не сверит другой экземпляр
+    // и не удалит завершившийся вызов
+    private void tryReconcile(Long id) {
+        Release released = transactionTemplate.execute(status -> {
+            SlotReconciliation reconciliation = reconciliationRepository.lockDue(id, Instant.now()).orElse(null);
+            if (reconciliation == null) {
+                return null;
+            }
+
+            List<ParticipationRequestDto> requests;
+            try {
+                requests = requestServiceClient.getRequestsByIds(Arrays.asList(reconciliation.getRequestIds()));
+            } catch (Exception e) {
+                log.warn("Сверка мест eventId={} отложена: {}", reconciliation.getEventId(), e.getMessage());
+                reconciliation.setDueAt(Instant.now().plusMillis(delayMs));
+                return null;
+            }
+            // Пустой ответ — fallback клиента: заявки существуют, иначе места не были бы заняты
+            if (requests == null || requests.isEmpty()) {
+                log.warn("Сверка мест eventId={} отложена: request-service недоступен", reconciliation.getEventId());
+                reconciliation.setDueAt(Instant.now().plusMillis(delayMs));
+                return null;
+            }
+
+            // request-service подтверждает только заявки в PENDING, поэтому CONFIRMED — результат этого вызова.
+            // Если его подтвердил уже следующий вызов, места не возвращаются: лимит ошибается в безопасную сторону
+            long confirmed = requests.stream()
+                    .filter(request -> reconciliation.getEventId().equals(request.getEvent()))
+                    .filter(request -> request.getStatus() == RequestStatus.CONFIRMED)
+                    .count();
+            int unused = (int) (reconciliation.getReservedSlots()
+                    - Math.min(confirmed, reconciliation.getReservedSlots()));
+
+            reconciliationRepository.delete(reconciliation);
+            this.releaseInDb(reconciliation.getEventId(), unused);
+
+            log.info("Сверка мест eventId={}: подтверждено={}, возвращено мест={}",
+                    reconciliation.getEventId(), confirmed, unused);
+            return new Release(reconciliation.getEventId(), unused);
+        });
+
+        if (released != null) {
+            this.releaseInTracker(released.eventId(), released.slots());
+        }
+    }
+
+    // Без EventCapacityTracker места возвращаются в транзакции, удаляющей запись сверки
+    private void releaseInDb(Long eventId, int slots) {
+        if (slots > 0 && capacityTracker.isEmpty()) {
+            eventRepository.releaseSlots(eventId, slots);
+        }
+    }
+
+    // В память EventCapacityTracker — только после фиксации удаления записи
+    private void releaseInTracker(Long eventId, int slots) {
+        if (slots > 0) {
+            capacityTracker.ifPresent(tracker -> tracker.release(eventId, slots));
+        }
+    }
+
+    private record Release(Long eventId, int slots) {
+    }
+}
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_events_fts ON events USING GIN (to_tsvector('russian', coalesce(annotation, '') || ' ' || coalesce(description, '')));
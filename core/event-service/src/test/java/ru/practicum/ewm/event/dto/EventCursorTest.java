@@ -0,0 +1,58 @@
+package ru.practicum.ewm.event.dto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.practicum.ewm.user_service.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCursorTest {
+
+    @Test
+    void roundTripsWithNanos() {
+        EventCursor cursor = new EventCursor(Instant.parse("2024-03-01T10:15:30.123456789Z"), 42L);
+
+        assertThat(EventCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsDateBeforeEpoch() {
+        EventCursor cursor = new EventCursor(Instant.parse("1969-12-31T23:59:59.5Z"), 7L);
+
+        assertThat(EventCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new EventCursor(Instant.parse("2024-03-01T10:15:30Z"), Long.MAX_VALUE).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertThat(EventCursor.decode(null)).isNull();
+        assertThat(EventCursor.decode("")).isNull();
+        assertThat(EventCursor.decode("  ")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "MTIz", "YTpiOmM", "MTox", "MToyOjM6NA"})
+    void malformedCursorIsBadRequest(String cursor) {
+        assertThatThrownBy(() -> EventCursor.decode(cursor)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void cursorWithExtraFieldsIsBadRequest() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1:2:3:4".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> EventCursor.decode(cursor)).isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.ewm.event.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.EventState;
+import ru.practicum.ewm.event.model.QEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Полнотекстовый поиск на схеме с idx_events_fts из import.sql: выражение из FullTextFunctionContributor
+ * попадает в индекс, а сортировка по релевантности ставит выше события, где искомое слово встречается чаще.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        // Без application.yaml: его spring.config.import требует config-server
+        "spring.config.name=event-full-text-test",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.ewm.event.repository.EventFullTextTest$SqlCapture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Данные для плана заполняются один раз и фиксируются: ANALYZE должен видеть их
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EventFullTextTest {
+
+    private static final int EVENTS = 20_000;
+
+    private static final String TEXT = "джаз";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long often;
+
+    private Long once;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('Концерты')");
+        jdbcTemplate.update("INSERT INTO events (annotation, category_id, confirmed_requests, leased_slots, " +
+                "created_on, description, event_date, initiator_id, location_lat, location_lon, paid, " +
+                "participant_limit, request_moderation, state, title, views) " +
+                "SELECT 'Лекция о живописи номер ' || g, c.id, 0, 0, now(), 'Рассказ о художниках и выставках ' || g, " +
+                "now() + interval '10 days', g % 100, 55.75, 37.61, false, 0, true, 'PUBLISHED', 'Лекция', 0 " +
+                "FROM generate_series(1, " + EVENTS + ") g, categories c");
+
+        often = this.insertEvent("Вечер джаза", "Джаз, джаз и снова джаз до утра");
+        once = this.insertEvent("Концерт классической музыки", "В антракте прозвучит немного джаза");
+        jdbcTemplate.execute("ANALYZE events");
+    }
+
+    @BeforeEach
+    void clearCapturedSql() {
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    void moreRelevantEventIsFirst() {
+        List<Event> events = eventRepository.findAllOrderByRelevance(
+                EventFullText.matches(QEvent.event, TEXT), TEXT, PageRequest.of(0, 10));
+
+        assertThat(events).extracting(Event::getId).containsExactly(often, once);
+    }
+
+    @Test
+    void searchUsesFullTextIndex() {
+        eventRepository.findAllOrderByRelevance(EventFullText.matches(QEvent.event, TEXT), TEXT,
+                PageRequest.of(0, 10));
+        String sql = SqlCapture.STATEMENTS.getLast();
+
+        // Параметры: текст в WHERE и ORDER BY, offset, limit
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class,
+                TEXT, TEXT, 0, 10));
+
+        assertThat(plan).as(plan).contains("idx_events_fts");
+    }
+
+    private Long insertEvent(String annotation, String description) {
+        return jdbcTemplate.queryForObject("INSERT INTO events (annotation, category_id, confirmed_requests, " +
+                        "leased_slots, created_on, description, event_date, initiator_id, location_lat, location_lon, " +
+                        "paid, participant_limit, request_moderation, state, title, views) " +
+                        "SELECT ?, id, 0, 0, now(), ?, now() + interval '10 days', 1, 55.75, 37.61, false, 0, true, " +
+                        "'PUBLISHED', 'Концерт', 0 FROM categories RETURNING id",
+                Long.class, annotation, description);
+    }
+
+    // SQL, который Hibernate строит из HQL-функций, для EXPLAIN
+    public static class SqlCapture implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
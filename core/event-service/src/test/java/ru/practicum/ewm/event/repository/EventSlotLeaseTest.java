@@ -0,0 +1,135 @@
+package ru.practicum.ewm.event.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.category.repository.CategoryRepository;
+import ru.practicum.ewm.event.dto.Location;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.EventState;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        // Без application.yaml: его spring.config.import требует config-server
+        "spring.config.name=event-slot-lease-test",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Блоки берутся и учитываются в собственных транзакциях и должны видеть зафиксированное событие
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventSlotLeaseTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long eventId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(new Category(null, "Концерты"));
+        eventId = eventRepository.save(Event.builder()
+                .annotation("Аннотация события")
+                .category(category)
+                .description("Описание события")
+                .eventDate(Instant.now().plus(10, ChronoUnit.DAYS))
+                .initiatorId(1L)
+                .location(new Location(55.75f, 37.61f))
+                .participantLimit(100)
+                .state(EventState.PUBLISHED)
+                .title("Событие")
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM event_slot_leases");
+        eventRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void leaseOfStoppedInstanceIsReclaimed() {
+        eventRepository.leaseSlots(eventId, 1, 16, "live", Instant.now().plus(TTL));
+        eventRepository.leaseSlots(eventId, 1, 16, "crashed", Instant.now().minusSeconds(1));
+        assertThat(this.leasedSlots()).isEqualTo(32);
+
+        assertThat(eventRepository.reclaimExpiredLeases(Instant.now())).isEqualTo(1);
+
+        assertThat(this.leasedSlots()).isEqualTo(16);
+        assertThat(jdbcTemplate.queryForList("SELECT owner FROM event_slot_leases", String.class))
+                .containsExactly("live");
+    }
+
+    @Test
+    void extendedLeaseIsNotReclaimed() {
+        eventRepository.leaseSlots(eventId, 1, 16, "slow", Instant.now().minusSeconds(1));
+        eventRepository.extendLeases("slow", Instant.now().plus(TTL));
+
+        assertThat(eventRepository.reclaimExpiredLeases(Instant.now())).isZero();
+        assertThat(this.leasedSlots()).isEqualTo(16);
+    }
+
+    @Test
+    void settledLeaseIsRemovedWithoutChangingLimit() {
+        eventRepository.leaseSlots(eventId, 1, 16, "live", Instant.now().plus(TTL));
+        eventRepository.settleLease(eventId, 5, 11, "live", Instant.now().plus(TTL));
+
+        assertThat(this.leasedSlots()).isZero();
+        assertThat(this.confirmedRequests()).isEqualTo(5);
+
+        // Пустой блок удаляется, лимит уже учтён при учёте блока
+        assertThat(eventRepository.reclaimExpiredLeases(Instant.now())).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM event_slot_leases", Long.class)).isZero();
+    }
+
+    @Test
+    void settlementAfterReclaimDoesNotReturnSlotsTwice() {
+        eventRepository.leaseSlots(eventId, 1, 16, "live", Instant.now().plus(TTL));
+        eventRepository.leaseSlots(eventId, 1, 16, "slow", Instant.now().minusSeconds(1));
+        eventRepository.reclaimExpiredLeases(Instant.now());
+
+        // Экземпляр очнулся после возврата блока: выданные им места учитываются, блок повторно не вычитается
+        eventRepository.settleLease(eventId, 3, 13, "slow", Instant.now().plus(TTL));
+
+        assertThat(this.confirmedRequests()).isEqualTo(3);
+        assertThat(this.leasedSlots()).isEqualTo(16);
+    }
+
+    private long leasedSlots() {
+        return jdbcTemplate.queryForObject("SELECT leased_slots FROM events WHERE id = ?", Long.class, eventId);
+    }
+
+    private long confirmedRequests() {
+        return jdbcTemplate.queryForObject("SELECT confirmed_requests FROM events WHERE id = ?", Long.class, eventId);
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.ewm.event.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.category.repository.CategoryRepository;
+import ru.practicum.ewm.event.dto.Location;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.EventState;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        // Без application.yaml: его spring.config.import требует config-server
+        "spring.config.name=event-slot-reservation-test",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Места занимаются в собственных транзакциях и из нескольких потоков
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventSlotReservationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void reservationIsCutToRemainingSlots() {
+        Long eventId = this.createEvent(5);
+
+        assertThat(eventRepository.reserveSlots(eventId, 3)).isEqualTo(3);
+        assertThat(eventRepository.reserveSlots(eventId, 3)).isEqualTo(2);
+        assertThat(eventRepository.reserveSlots(eventId, 1)).isZero();
+        assertThat(this.confirmedRequests(eventId)).isEqualTo(5);
+    }
+
+    @Test
+    void eventWithoutLimitGrantsAllSlots() {
+        Long eventId = this.createEvent(0);
+
+        assertThat(eventRepository.reserveSlots(eventId, 1_000)).isEqualTo(1_000);
+        assertThat(this.confirmedRequests(eventId)).isEqualTo(1_000);
+    }
+
+    @Test
+    void leasedSlotsAreNotGranted() {
+        Long eventId = this.createEvent(10);
+        jdbcTemplate.update("UPDATE events SET leased_slots = 8 WHERE id = ?", eventId);
+
+        assertThat(eventRepository.reserveSlots(eventId, 5)).isEqualTo(2);
+    }
+
+    @Test
+    void missingEventIsNull() {
+        assertThat(eventRepository.reserveSlots(-1L, 1)).isNull();
+    }
+
+    @Test
+    void releasedSlotsCanBeReservedAgain() {
+        Long eventId = this.createEvent(2);
+        eventRepository.reserveSlots(eventId, 2);
+
+        eventRepository.releaseSlots(eventId, 5);
+
+        assertThat(this.confirmedRequests(eventId)).isZero();
+        assertThat(eventRepository.reserveSlots(eventId, 2)).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedLimit() throws Exception {
+        int limit = 50;
+        Long eventId = this.createEvent(limit);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int granted = 0;
+                for (int i = 0; i < 20; i++) {
+                    granted += eventRepository.reserveSlots(eventId, 1);
+                }
+                return granted;
+            }));
+        }
+        start.countDown();
+
+        int granted = 0;
+        for (Future<Integer> future : futures) {
+            granted += future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(granted).isEqualTo(limit);
+        assertThat(this.confirmedRequests(eventId)).isEqualTo(limit);
+    }
+
+    private Long createEvent(int participantLimit) {
+        Category category = categoryRepository.save(new Category(null, "Концерты " + System.nanoTime()));
+        return eventRepository.save(Event.builder()
+                .annotation("Аннотация события")
+                .category(category)
+                .description("Описание события")
+                .eventDate(Instant.now().plus(10, ChronoUnit.DAYS))
+                .initiatorId(1L)
+                .location(new Location(55.75f, 37.61f))
+                .participantLimit(participantLimit)
+                .state(EventState.PUBLISHED)
+                .title("Событие")
+                .build()).getId();
+    }
+
+    private long confirmedRequests(Long eventId) {
+        return jdbcTemplate.queryForObject("SELECT confirmed_requests FROM events WHERE id = ?", Long.class, eventId);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.ewm.event.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.event.dto.Location;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.EventState;
+import ru.practicum.ewm.event.model.EventViews;
+import ru.practicum.ewm.event.model.QEvent;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        // Без application.yaml: его spring.config.import требует config-server
+        "spring.config.name=event-views-order-test",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EventViewsOrderTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventViewsRepository eventViewsRepository;
+
+    @Test
+    void eventsWithoutViewsRowAreSortedAsZeroViews() {
+        Category category = new Category(null, "Концерты");
+        entityManager.persist(category);
+
+        Event popular = this.event(category, EventState.PUBLISHED, 10L);
+        Event unsynced = this.event(category, EventState.PUBLISHED, null);
+        Event viewed = this.event(category, EventState.PUBLISHED, 5L);
+        Event unviewed = this.event(category, EventState.PUBLISHED, 0L);
+        this.event(category, EventState.PENDING, 100L);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Event> events = eventRepository.findAllOrderByViews(QEvent.event.state.eq(EventState.PUBLISHED),
+                PageRequest.of(0, 10));
+
+        // Без строки в event_views событие не пропадает, а стоит среди событий без просмотров по id
+        assertThat(events).extracting(Event::getId)
+                .containsExactly(popular.getId(), viewed.getId(), unsynced.getId(), unviewed.getId());
+    }
+
+    private Event event(Category category, EventState state, Long views) {
+        Event event = Event.builder()
+                .annotation("Аннотация события")
+                .category(category)
+                .description("Описание события")
+                .eventDate(Instant.now().plus(10, ChronoUnit.DAYS))
+                .initiatorId(1L)
+                .location(new Location(55.75f, 37.61f))
+                .state(state)
+                .title("Событие")
+                .build();
+        entityManager.persist(event);
+
+        if (views != null) {
+            eventViewsRepository.save(new EventViews(event.getId(), views));
+        }
+        return event;
+    }
+}
@@ -0,0 +1,194 @@
+package ru.practicum.ewm.event.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.event.repository.EventRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventCapacityTrackerTest {
+
+    private static final long EVENT_ID = 1L;
+
+    private static final Duration LEASE_TTL = Duration.ofMinutes(1);
+
+    @Test
+    void concurrentReservationsOnTwoInstancesNeverExceedLimit() throws Exception {
+        int limit = 1_000;
+        EventRow row = new EventRow(limit);
+        EventRepository repository = repository(row);
+        EventCapacityTracker first = new EventCapacityTracker(repository, 16, LEASE_TTL);
+        EventCapacityTracker second = new EventCapacityTracker(repository, 16, LEASE_TTL);
+
+        AtomicLong kept = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        int workers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(workers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int w = 0; w < workers; w++) {
+            EventCapacityTracker tracker = w % 2 == 0 ? first : second;
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 500; i++) {
+                    int slots = 1 + random.nextInt(3);
+                    int granted = tracker.reserve(EVENT_ID, slots);
+                    // Часть мест возвращается, как при отклонённых заявках
+                    int released = granted > 0 && random.nextInt(4) == 0 ? 1 : 0;
+                    tracker.release(EVENT_ID, released);
+                    kept.addAndGet(granted - released);
+                }
+                return null;
+            }));
+        }
+        // Учёт блоков и смена лимита идут параллельно с резервированием
+        Future<?> settler = executor.submit(() -> {
+            start.await();
+            while (running.get()) {
+                first.returnLeases();
+                second.returnLeases();
+                if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                    first.evict(EVENT_ID);
+                }
+            }
+            return null;
+        });
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        running.set(false);
+        settler.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        first.returnLeases();
+        second.returnLeases();
+
+        assertThat(row.maxTaken).isLessThanOrEqualTo(limit);
+        assertThat(kept.get()).isLessThanOrEqualTo(limit);
+        assertThat(row.confirmed).isEqualTo(kept.get());
+        assertThat(row.leased).isZero();
+
+        // Ни одно место не потеряно: оставшиеся раздаются до лимита
+        long rest = 0;
+        int granted;
+        while ((granted = first.reserve(EVENT_ID, 1)) > 0) {
+            rest += granted;
+        }
+        first.returnLeases();
+
+        assertThat(kept.get() + rest).isEqualTo(limit);
+        assertThat(row.confirmed).isEqualTo(limit);
+        assertThat(row.leased).isZero();
+    }
+
+    @Test
+    void smallEventIsNotTakenByOneInstance() {
+        EventRow row = new EventRow(10);
+        EventRepository repository = repository(row);
+        EventCapacityTracker first = new EventCapacityTracker(repository, 16, LEASE_TTL);
+        EventCapacityTracker second = new EventCapacityTracker(repository, 16, LEASE_TTL);
+
+        assertThat(first.reserve(EVENT_ID, 1)).isEqualTo(1);
+        assertThat(row.leased).isLessThan(10);
+        assertThat(second.reserve(EVENT_ID, 1)).isEqualTo(1);
+    }
+
+    @Test
+    void leasedSlotsAreNotReportedAsConfirmed() {
+        EventRow row = new EventRow(100);
+        EventCapacityTracker tracker = new EventCapacityTracker(repository(row), 16, LEASE_TTL);
+
+        tracker.reserve(EVENT_ID, 2);
+        tracker.returnLeases();
+
+        assertThat(row.confirmed).isEqualTo(2);
+        assertThat(row.leased).isZero();
+    }
+
+    @Test
+    void failedSettlementIsRetried() {
+        EventRow row = new EventRow(100);
+        EventRepository repository = repository(row);
+        EventCapacityTracker tracker = new EventCapacityTracker(repository, 16, LEASE_TTL);
+        tracker.reserve(EVENT_ID, 3);
+
+        doAnswer(invocation -> {
+            throw new IllegalStateException("БД недоступна");
+        }).when(repository).settleLease(eq(EVENT_ID), anyLong(), anyLong(), anyString(), any());
+        tracker.returnLeases();
+        assertThat(row.confirmed).isZero();
+
+        doAnswer(invocation -> {
+            row.settle(invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(repository).settleLease(eq(EVENT_ID), anyLong(), anyLong(), anyString(), any());
+        tracker.returnLeases();
+
+        assertThat(row.confirmed).isEqualTo(3);
+        assertThat(row.leased).isZero();
+    }
+
+    private static EventRepository repository(EventRow row) {
+        EventRepository repository = mock(EventRepository.class);
+        when(repository.leaseSlots(eq(EVENT_ID), anyInt(), anyInt(), anyString(), any()))
+                .thenAnswer(invocation -> row.lease(invocation.getArgument(1), invocation.getArgument(2)));
+        doAnswer(invocation -> {
+            row.settle(invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(repository).settleLease(eq(EVENT_ID), anyLong(), anyLong(), anyString(), any());
+        return repository;
+    }
+
+    // Строка events: те же формулы, что в запросах EventRepository, под блокировкой строки
+    private static final class EventRow {
+
+        private final long limit;
+
+        private long confirmed;
+
+        private long leased;
+
+        private long maxTaken;
+
+        private EventRow(long limit) {
+            this.limit = limit;
+        }
+
+        private synchronized int lease(int slots, int batch) {
+            long remaining = limit - confirmed - leased;
+            int granted = (int) Math.max(Math.min(Math.max(slots, Math.min(batch, remaining / 4)), remaining), 0);
+            leased += granted;
+            maxTaken = Math.max(maxTaken, confirmed + leased);
+            return granted;
+        }
+
+        private synchronized void settle(long consumed, long returned) {
+            confirmed = Math.max(confirmed + consumed, 0);
+            leased = Math.max(leased - consumed - returned, 0);
+            maxTaken = Math.max(maxTaken, confirmed + leased);
+        }
+    }
+}
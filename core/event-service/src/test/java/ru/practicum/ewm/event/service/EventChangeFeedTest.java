@@ -0,0 +1,86 @@
+package ru.practicum.ewm.event.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.ewm.cache.ChangeFeedDto;
+import ru.practicum.ewm.event.model.EventChange;
+import ru.practicum.ewm.event.repository.EventChangeRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventChangeFeedTest {
+
+    private final EventChangeRepository repository = mock(EventChangeRepository.class);
+
+    private final EventChangeFeed feed = new EventChangeFeed(repository, Duration.ofHours(1), Duration.ofSeconds(5));
+
+    @Test
+    void positionStopsBeforeRecentChanges() {
+        LocalDateTime now = LocalDateTime.now();
+        when(repository.findAllByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(
+                new EventChange(11L, 1L, now.minusMinutes(1)),
+                new EventChange(12L, 2L, now.minusSeconds(10)),
+                new EventChange(13L, 3L, now.minusSeconds(1))));
+
+        ChangeFeedDto changes = feed.getChanges(10, 100);
+
+        // 13 ещё может обогнать незафиксированная запись с меньшим id — её читаем повторно
+        assertThat(changes.getLastId()).isEqualTo(12L);
+        assertThat(changes.getIds()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void positionStopsAtFirstRecentChange() {
+        LocalDateTime now = LocalDateTime.now();
+        when(repository.findAllByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(
+                new EventChange(11L, 1L, now.minusMinutes(1)),
+                new EventChange(12L, 2L, now.minusSeconds(1)),
+                new EventChange(13L, 3L, now.minusSeconds(10))));
+
+        ChangeFeedDto changes = feed.getChanges(10, 100);
+
+        // 13 старше 12, но за 12 ещё может зафиксироваться запись с меньшим id
+        assertThat(changes.getLastId()).isEqualTo(11L);
+        assertThat(changes.getIds()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void positionDoesNotMoveWhileAllChangesAreRecent() {
+        LocalDateTime now = LocalDateTime.now();
+        when(repository.findAllByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(
+                new EventChange(12L, 2L, now.minusSeconds(2)),
+                new EventChange(13L, 3L, now)));
+
+        ChangeFeedDto changes = feed.getChanges(10, 100);
+
+        assertThat(changes.getLastId()).isEqualTo(10L);
+        assertThat(changes.getIds()).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void initialPositionSkipsRecentChanges() {
+        when(repository.findLastIdBefore(any(LocalDateTime.class))).thenReturn(7L);
+
+        ChangeFeedDto changes = feed.getChanges(-1, 100);
+
+        assertThat(changes.getLastId()).isEqualTo(7L);
+        assertThat(changes.getIds()).isEmpty();
+    }
+
+    @Test
+    void emptyFeedReturnsLastId() {
+        when(repository.findAllByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenReturn(List.of());
+        when(repository.findLastId()).thenReturn(3L);
+
+        assertThat(feed.getChanges(10, 100).getLastId()).isEqualTo(3L);
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.ewm.event.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.ewm.user_service.client.UserServiceClient;
+import ru.practicum.ewm.user_service.dto.UserDto;
+import ru.practicum.ewm.user_service.dto.UserShortDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class EventInitiatorEnricherTest {
+
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+
+    private final EventInitiatorEnricher enricher = new EventInitiatorEnricher(userServiceClient);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void pageIsEnrichedWithOneCall() {
+        when(userServiceClient.getUsersByIds(anyList())).thenReturn(List.of(user(1L, "Анна"), user(2L, "Борис")));
+        List<UserShortDto> initiators = initiators(1L, 2L, 1L);
+
+        enricher.enrich(initiators);
+
+        assertThat(this.requestedIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(initiators).extracting(UserShortDto::getName).containsExactly("Анна", "Борис", "Анна");
+    }
+
+    @Test
+    void usersFoundInRequestAreNotRequestedAgain() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userServiceClient.getUsersByIds(anyList()))
+                .thenReturn(List.of(user(1L, "Анна")), List.of(user(2L, "Борис")));
+
+        enricher.enrich(initiators(1L));
+        List<UserShortDto> initiators = initiators(1L, 2L);
+        enricher.enrich(initiators);
+
+        ArgumentCaptor<List<Long>> ids = ArgumentCaptor.captor();
+        verify(userServiceClient, times(2)).getUsersByIds(ids.capture());
+        assertThat(ids.getAllValues().getLast()).containsExactly(2L);
+        assertThat(initiators).extracting(UserShortDto::getName).containsExactly("Анна", "Борис");
+    }
+
+    @Test
+    void missingUserKeepsOnlyId() {
+        when(userServiceClient.getUsersByIds(anyList())).thenReturn(List.of(user(1L, "Анна")));
+        List<UserShortDto> initiators = initiators(1L, 2L);
+
+        enricher.enrich(initiators);
+
+        assertThat(initiators).extracting(UserShortDto::getId).containsExactly(1L, 2L);
+        assertThat(initiators).extracting(UserShortDto::getName).containsExactly("Анна", null);
+    }
+
+    @Test
+    void failingClientDoesNotFailPage() {
+        when(userServiceClient.getUsersByIds(anyList())).thenThrow(new IllegalStateException("user-service недоступен"));
+        List<UserShortDto> initiators = initiators(1L, 2L);
+
+        enricher.enrich(initiators);
+
+        assertThat(initiators).extracting(UserShortDto::getId).containsExactly(1L, 2L);
+        assertThat(initiators).extracting(UserShortDto::getName).containsOnlyNulls();
+    }
+
+    @Test
+    void emptyPageIsNotRequested() {
+        List<UserShortDto> initiators = new ArrayList<>();
+        initiators.add(null);
+        initiators.add(new UserShortDto(null, null));
+
+        enricher.enrich(initiators);
+
+        verifyNoInteractions(userServiceClient);
+    }
+
+    private List<Long> requestedIds() {
+        ArgumentCaptor<List<Long>> ids = ArgumentCaptor.captor();
+        verify(userServiceClient).getUsersByIds(ids.capture());
+        return ids.getValue();
+    }
+
+    private static List<UserShortDto> initiators(Long... ids) {
+        return Arrays.stream(ids).map(id -> new UserShortDto(id, null)).toList();
+    }
+
+    private static UserDto user(Long id, String name) {
+        return new UserDto(id, "user" + id + "@example.com", name);
+    }
+}
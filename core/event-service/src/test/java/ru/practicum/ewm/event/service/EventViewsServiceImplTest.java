@@ -0,0 +1,73 @@
+package ru.practicum.ewm.event.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.ReqStatsParams;
+import ru.practicum.ewm.StatsDto;
+import ru.practicum.ewm.client.StatsClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventViewsServiceImplTest {
+
+    private final StatsClient statsClient = mock(StatsClient.class);
+
+    private final EventViewsServiceImpl service = new EventViewsServiceImpl(statsClient, properties(),
+            new SimpleMeterRegistry());
+
+    @Test
+    void repeatedReadsAreServedFromCache() {
+        when(statsClient.getStats(any(ReqStatsParams.class)))
+                .thenReturn(List.of(new StatsDto("evm-main-service", "/events/1", 5L)));
+
+        assertThat(service.getViews(List.of(1L, 2L))).isEqualTo(Map.of(1L, 5L, 2L, 0L));
+        assertThat(service.getViews(List.of(1L))).isEqualTo(Map.of(1L, 5L));
+
+        verify(statsClient, times(1)).getStats(any(ReqStatsParams.class));
+    }
+
+    @Test
+    void viewsRefreshInBackgroundOncePerBurst() throws InterruptedException {
+        when(statsClient.getStats(any(ReqStatsParams.class)))
+                .thenReturn(List.of(new StatsDto("evm-main-service", "/events/1", 5L)))
+                .thenReturn(List.of(new StatsDto("evm-main-service", "/events/1", 6L)));
+        service.getViews(List.of(1L));
+
+        // Поток запроса не ходит в stats-server: просмотры перечитываются одной фоновой загрузкой
+        for (int i = 0; i < 100; i++) {
+            service.refreshAfterHit(1L);
+        }
+        assertThat(service.getViews(List.of(1L))).isEqualTo(Map.of(1L, 5L));
+
+        verify(statsClient, timeout(5_000).times(2)).getStats(any(ReqStatsParams.class));
+        assertThat(awaitViews(1L, 6L)).isEqualTo(6L);
+        verify(statsClient, times(2)).getStats(any(ReqStatsParams.class));
+    }
+
+    // Значение попадает в кэш сразу после ответа stats-server, в фоновом потоке
+    private long awaitViews(Long eventId, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        long views;
+        while ((views = service.getViews(List.of(eventId)).get(eventId)) != expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return views;
+    }
+
+    private static EventViewsCacheProperties properties() {
+        EventViewsCacheProperties properties = new EventViewsCacheProperties();
+        properties.setHitRefreshDelay(Duration.ofMillis(200));
+        return properties;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.ewm.event.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.ReqStatsParams;
+import ru.practicum.ewm.StatsDto;
+import ru.practicum.ewm.client.StatsClient;
+import ru.practicum.ewm.event.model.EventViewsSyncState;
+import ru.practicum.ewm.event.repository.EventViewsRepository;
+import ru.practicum.ewm.event.repository.EventViewsSyncStateRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventViewsSyncJobTest {
+
+    private final StatsClient statsClient = mock(StatsClient.class);
+
+    private final EventViewsRepository eventViewsRepository = mock(EventViewsRepository.class);
+
+    private final EventViewsSyncStateRepository syncStateRepository = mock(EventViewsSyncStateRepository.class);
+
+    private final EventViewsSyncJob job = new EventViewsSyncJob(statsClient, eventViewsRepository,
+            syncStateRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(job, "intervalMs", 60_000L);
+        ReflectionTestUtils.setField(job, "hitLateness", Duration.ofHours(1));
+        when(syncStateRepository.moveSyncedAt(eq(1), any(Instant.class), any(Instant.class))).thenReturn(1);
+    }
+
+    @Test
+    void firstSyncReadsWholeHistory() {
+        syncedAt(Instant.EPOCH);
+        when(statsClient.getStats(any(ReqStatsParams.class))).thenReturn(List.of(
+                new StatsDto("evm-main-service", "/events/1", 3L),
+                new StatsDto("evm-main-service", "/events", 10L)));
+
+        job.sync();
+
+        ReqStatsParams params = captureParams(1).getFirst();
+        assertThat(params.isUnique()).isTrue();
+        assertThat(params.getUris()).isNull();
+        verify(eventViewsRepository).upsertAll(Map.of(1L, 3L));
+    }
+
+    @Test
+    void nextSyncRecountsOnlyEventsWithNewHits() {
+        syncedAt(Instant.now().minus(Duration.ofMinutes(5)));
+        when(statsClient.getStats(any(ReqStatsParams.class)))
+                .thenReturn(List.of(new StatsDto("evm-main-service", "/events/2", 4L)))
+                .thenReturn(List.of(new StatsDto("evm-main-service", "/events/2", 2L)));
+
+        job.sync();
+
+        List<ReqStatsParams> params = captureParams(2);
+        assertThat(params.get(0).isUnique()).isFalse();
+        assertThat(params.get(1).isUnique()).isTrue();
+        assertThat(params.get(1).getUris()).containsExactly("/events/2");
+        verify(eventViewsRepository).upsertAll(Map.of(2L, 2L));
+    }
+
+    @Test
+    void syncClaimedByAnotherInstanceIsSkipped() {
+        syncedAt(Instant.now().minus(Duration.ofMinutes(5)));
+        when(syncStateRepository.moveSyncedAt(eq(1), any(Instant.class), any(Instant.class))).thenReturn(0);
+
+        job.sync();
+
+        verify(statsClient, never()).getStats(any());
+        verify(eventViewsRepository, never()).upsertAll(anyMap());
+    }
+
+    @Test
+    void failedSyncRestoresMark() {
+        Instant previous = Instant.now().minus(Duration.ofMinutes(5));
+        syncedAt(previous);
+        when(statsClient.getStats(any(ReqStatsParams.class))).thenThrow(new IllegalStateException("недоступен"));
+
+        job.sync();
+
+        // Первый вызов занимает синхронизацию, второй возвращает отметку
+        ArgumentCaptor<Instant> moved = ArgumentCaptor.forClass(Instant.class);
+        verify(syncStateRepository, times(2)).moveSyncedAt(eq(1), any(Instant.class), moved.capture());
+        assertThat(moved.getAllValues().getLast()).isEqualTo(previous);
+        verify(eventViewsRepository, never()).upsertAll(anyMap());
+    }
+
+    private void syncedAt(Instant syncedAt) {
+        when(syncStateRepository.findById(1)).thenReturn(Optional.of(new EventViewsSyncState(1, syncedAt)));
+    }
+
+    private List<ReqStatsParams> captureParams(int calls) {
+        ArgumentCaptor<ReqStatsParams> captor = ArgumentCaptor.forClass(ReqStatsParams.class);
+        verify(statsClient, times(calls)).getStats(captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.ewm.event.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.category.repository.CategoryRepository;
+import ru.practicum.ewm.event.dto.Location;
+import ru.practicum.ewm.event.model.Event;
+import ru.practicum.ewm.event.model.EventState;
+import ru.practicum.ewm.event.repository.EventRepository;
+import ru.practicum.ewm.event.repository.SlotReconciliationRepository;
+import ru.practicum.ewm.request_service.client.RequestServiceClient;
+import ru.practicum.ewm.request_service.dto.ParticipationRequestDto;
+import ru.practicum.ewm.request_service.enums.RequestStatus;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        // Без application.yaml: его spring.config.import требует config-server
+        "spring.config.name=slot-reconciler-test",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Сверка идёт в собственных транзакциях и должна видеть зафиксированное событие
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SlotReconcilerTest {
+
+    private static final List<Long> REQUEST_IDS = List.of(1L, 2L, 3L);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SlotReconciliationRepository reconciliationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final RequestServiceClient requestServiceClient = mock(RequestServiceClient.class);
+
+    private Long eventId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(new Category(null, "Концерты"));
+        eventId = eventRepository.save(Event.builder()
+                .annotation("Аннотация события")
+                .category(category)
+                .description("Описание события")
+                .eventDate(Instant.now().plus(10, ChronoUnit.DAYS))
+                .initiatorId(1L)
+                .location(new Location(55.75f, 37.61f))
+                .participantLimit(100)
+                .state(EventState.PUBLISHED)
+                .title("Событие")
+                .build()).getId();
+        eventRepository.reserveSlots(eventId, REQUEST_IDS.size());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciliationRepository.deleteAll();
+        eventRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void unknownOutcomeIsReconciledAfterRestart() {
+        SlotReconciler before = this.reconciler();
+        Long id = before.register(eventId, REQUEST_IDS, REQUEST_IDS.size());
+        before.postpone(id, eventId, REQUEST_IDS.size());
+
+        // Запись сверки в БД: её подхватывает новый экземпляр
+        when(requestServiceClient.getRequestsByIds(anyList())).thenReturn(List.of(
+                request(1L, RequestStatus.CONFIRMED),
+                request(2L, RequestStatus.REJECTED),
+                request(3L, RequestStatus.REJECTED)));
+        this.reconciler().reconcile();
+
+        assertThat(this.confirmedRequests()).isEqualTo(1);
+        assertThat(reconciliationRepository.count()).isZero();
+    }
+
+    @Test
+    void reconciliationIsRetriedWhileRequestServiceIsUnavailable() {
+        SlotReconciler reconciler = this.reconciler();
+        Long id = reconciler.register(eventId, REQUEST_IDS, REQUEST_IDS.size());
+        reconciler.postpone(id, eventId, REQUEST_IDS.size());
+
+        when(requestServiceClient.getRequestsByIds(anyList())).thenThrow(new IllegalStateException("нет ответа"));
+        reconciler.reconcile();
+        assertThat(this.confirmedRequests()).isEqualTo(3);
+        assertThat(reconciliationRepository.count()).isEqualTo(1);
+
+        // Fallback клиента — пустой список: места тоже остаются занятыми
+        doReturn(List.of()).when(requestServiceClient).getRequestsByIds(anyList());
+        reconciler.reconcile();
+        assertThat(this.confirmedRequests()).isEqualTo(3);
+        assertThat(reconciliationRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void lateCompletionDoesNotReleaseSlotsTwice() {
+        SlotReconciler reconciler = this.reconciler();
+        Long id = reconciler.register(eventId, REQUEST_IDS, REQUEST_IDS.size());
+
+        when(requestServiceClient.getRequestsByIds(anyList())).thenReturn(List.of(
+                request(1L, RequestStatus.CONFIRMED),
+                request(2L, RequestStatus.REJECTED),
+                request(3L, RequestStatus.REJECTED)));
+        reconciler.reconcile();
+        // Ответ request-service пришёл уже после сверки
+        reconciler.complete(id, eventId, 2);
+
+        assertThat(this.confirmedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void completionReleasesUnusedSlots() {
+        SlotReconciler reconciler = this.reconciler();
+        Long id = reconciler.register(eventId, REQUEST_IDS, REQUEST_IDS.size());
+
+        reconciler.complete(id, eventId, 1);
+
+        assertThat(this.confirmedRequests()).isEqualTo(2);
+        assertThat(reconciliationRepository.count()).isZero();
+    }
+
+    // Нулевая задержка: запись сверяется при первом запуске
+    private SlotReconciler reconciler() {
+        return new SlotReconciler(requestServiceClient, eventRepository, reconciliationRepository,
+                transactionTemplate, Optional.empty(), 0);
+    }
+
+    private ParticipationRequestDto request(Long id, RequestStatus status) {
+        return new ParticipationRequestDto(id, eventId, 10L + id, null, status);
+    }
+
+    private long confirmedRequests() {
+        return jdbcTemplate.queryForObject("SELECT confirmed_requests FROM events WHERE id = ?", Long.class, eventId);
+    }
+}
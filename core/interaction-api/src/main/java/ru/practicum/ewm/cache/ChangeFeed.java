@@ -0,0 +1,86 @@
+package ru.practicum.ewm.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Лента изменений сервиса-владельца данных, которую читает ChangeFeedPoller в других сервисах.
+ * Запись добавляется в той же транзакции, что и изменение сущности, поэтому откат изменения откатывает и её.
+ * id выдаются при вставке, а видны после фиксации, поэтому запись с меньшим id может появиться позже
+ * записи с бо́льшим. Позиция ленты продвигается только через непрерывный ряд записей старше commit-grace —
+ * времени, за которое фиксируется любая транзакция; начиная с первой более свежей записи порция
+ * приходит повторно.
+ */
+@Slf4j
+public abstract class ChangeFeed<T extends ChangeFeedEntry> {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final String name;
+
+    private final ChangeFeedRepository<T> repository;
+
+    private final BiFunction<Long, LocalDateTime, T> entryFactory;
+
+    private final Duration retention;
+
+    private final Duration commitGrace;
+
+    protected ChangeFeed(String name,
+                         ChangeFeedRepository<T> repository,
+                         BiFunction<Long, LocalDateTime, T> entryFactory,
+                         Duration retention,
+                         Duration commitGrace) {
+        this.name = name;
+        this.repository = repository;
+        this.entryFactory = entryFactory;
+        this.retention = retention;
+        this.commitGrace = commitGrace;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long entityId) {
+        repository.save(entryFactory.apply(entityId, LocalDateTime.now()));
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeFeedDto getChanges(long after, int limit) {
+        LocalDateTime settledBefore = LocalDateTime.now().minus(commitGrace);
+        if (after < 0) {
+            return new ChangeFeedDto(repository.findLastIdBefore(settledBefore), List.of());
+        }
+
+        List<T> changes = repository.findAllByIdGreaterThanOrderByIdAsc(after,
+                PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_LIMIT)));
+        if (changes.isEmpty()) {
+            // Если лента пересоздана, вернётся позиция меньше after и клиент сбросит кэш целиком
+            return new ChangeFeedDto(repository.findLastId(), List.of());
+        }
+
+        // За свежей записью могут идти более старые с бо́льшим id, но между ними возможна ещё
+        // не зафиксированная запись с меньшим id — позиция за свежую запись не переходит
+        long lastId = after;
+        for (T change : changes) {
+            if (!change.getChangedAt().isBefore(settledBefore)) {
+                break;
+            }
+            lastId = change.getId();
+        }
+
+        return new ChangeFeedDto(lastId,
+                changes.stream().map(ChangeFeedEntry::getEntityId).distinct().toList());
+    }
+
+    @Transactional
+    public void purge() {
+        int deleted = repository.deleteOlderThan(LocalDateTime.now().minus(retention), repository.findLastId());
+        log.debug("Очистка ленты изменений {}: удалено={}", name, deleted);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.ewm.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Порция ленты изменений сервиса-владельца данных.
+ * lastId — позиция, с которой запрашивать следующую порцию; ids — изменившиеся сущности.
+ * lastId может отставать от последней записи порции: недавние записи повторяются в следующих порциях,
+ * чтобы не пропустить транзакции, зафиксированные не в порядке id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDto {
+
+    private Long lastId;
+    private List<Long> ids;
+}
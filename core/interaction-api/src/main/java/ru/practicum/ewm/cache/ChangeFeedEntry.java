@@ -0,0 +1,15 @@
+package ru.practicum.ewm.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись ленты изменений: id в порядке вставки, id изменившейся сущности и время изменения.
+ */
+public interface ChangeFeedEntry {
+
+    Long getId();
+
+    Long getEntityId();
+
+    LocalDateTime getChangedAt();
+}
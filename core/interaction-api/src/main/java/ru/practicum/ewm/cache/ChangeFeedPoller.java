@@ -0,0 +1,78 @@
+package ru.practicum.ewm.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Периодически читает ленту изменений сервиса-владельца и сообщает, какие записи локального кэша устарели.
+ * Первый запрос (after = -1) только запоминает текущую позицию ленты; до этого кэш заполнять нельзя,
+ * иначе изменения, случившиеся до запуска, останутся незамеченными.
+ */
+@Slf4j
+public class ChangeFeedPoller implements AutoCloseable {
+
+    private final String name;
+
+    private final LongFunction<ChangeFeedDto> source;
+
+    private final Consumer<List<Long>> onChanged;
+
+    private final Runnable onReset;
+
+    private final ScheduledExecutorService executor;
+
+    private volatile long lastId = -1;
+
+    public ChangeFeedPoller(String name,
+                            Duration interval,
+                            LongFunction<ChangeFeedDto> source,
+                            Consumer<List<Long>> onChanged,
+                            Runnable onReset) {
+        this.name = name;
+        this.source = source;
+        this.onChanged = onChanged;
+        this.onReset = onReset;
+        this.executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name(name + "-change-feed")
+                .daemon()
+                .factory());
+        this.executor.scheduleWithFixedDelay(this::poll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReady() {
+        return lastId >= 0;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void poll() {
+        try {
+            ChangeFeedDto changes = source.apply(lastId);
+            if (changes == null || changes.getLastId() == null) {
+                return;
+            }
+
+            if (changes.getLastId() < lastId) {
+                // Лента начата заново (например, база сервиса пересоздана) — доверять кэшу нельзя
+                log.info("Лента изменений {} сброшена: lastId={} < {}", name, changes.getLastId(), lastId);
+                onReset.run();
+            } else if (changes.getIds() != null && !changes.getIds().isEmpty()) {
+                onChanged.accept(changes.getIds());
+            }
+
+            lastId = changes.getLastId();
+        } catch (Exception e) {
+            log.warn("Ошибка чтения ленты изменений {}; message={}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.ewm.cache;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Запросы к таблице ленты изменений, общие для всех сервисов-владельцев данных.
+ */
+@NoRepositoryBean
+public interface ChangeFeedRepository<T extends ChangeFeedEntry> extends JpaRepository<T, Long> {
+
+    List<T> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM #{#entityName} c")
+    long findLastId();
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM #{#entityName} c WHERE c.changedAt < :before")
+    long findLastIdBefore(LocalDateTime before);
+
+    // Последнюю запись не удаляем: по ней клиенты отличают очистку ленты от её пересоздания
+    @Modifying
+    @Query("DELETE FROM #{#entityName} c WHERE c.changedAt < :before AND c.id < :lastId")
+    int deleteOlderThan(LocalDateTime before, long lastId);
+}
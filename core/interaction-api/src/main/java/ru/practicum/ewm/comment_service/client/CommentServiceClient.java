@@ -0,0 +1,16 @@
+package ru.practicum.ewm.comment_service.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.ewm.comment_service.dto.CommentCountDto;
+
+import java.util.List;
+
+@FeignClient(name = "comment-service", path = "/internal/comments", fallback = CommentServiceClientFallback.class)
+public interface CommentServiceClient {
+
+    // События без комментариев в ответ не попадают
+    @GetMapping("/counts")
+    List<CommentCountDto> getCommentCounts(@RequestParam("eventIds") List<Long> eventIds);
+}
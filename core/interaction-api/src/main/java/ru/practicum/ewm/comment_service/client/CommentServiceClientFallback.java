@@ -0,0 +1,18 @@
+package ru.practicum.ewm.comment_service.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.comment_service.dto.CommentCountDto;
+
+import java.util.List;
+
+@Slf4j
+@Component
+public class CommentServiceClientFallback implements CommentServiceClient {
+
+    @Override
+    public List<CommentCountDto> getCommentCounts(List<Long> eventIds) {
+        log.warn("Fallback: количество комментариев не получено (comment-service недоступен или ошибка)");
+        return List.of();
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.ewm.comment_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CommentCountDto {
+
+    private Long eventId;
+
+    private Long publicCount;
+
+    private Long hiddenCount;
+}
@@ -0,0 +1,142 @@
+package ru.practicum.ewm.event_service.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.cache.ChangeFeedDto;
+import ru.practicum.ewm.cache.ChangeFeedPoller;
+import ru.practicum.ewm.event_service.dto.EventDtoForRequestService;
+import ru.practicum.ewm.event_service.dto.SlotReservationDto;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Клиент event-service с локальным кэшем событий.
+ * Кэшируется только getEventById; записи сбрасываются по ленте изменений event-service и по TTL.
+ * Проверки перед записью (состояние и лимит события при создании заявки) читают событие через
+ * getFreshEventById: лента доставляет изменения с задержкой опроса.
+ * confirmedRequests в кэшированном событии может отставать — лимит участников
+ * всё равно проверяется атомарным reserveSlots на стороне event-service.
+ */
+@Slf4j
+@Primary
+@Component
+public class CachingEventServiceClient implements EventServiceClient {
+
+    private final EventServiceClient delegate;
+
+    private final Cache<Long, EventDtoForRequestService> cache;
+
+    private final ChangeFeedPoller changeFeed;
+
+    // Растёт при каждом сбросе; ответ, полученный до сброса, в кэш не кладём
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingEventServiceClient(@Qualifier(FEIGN_QUALIFIER) ObjectProvider<EventServiceClient> feignClient,
+                                     EventServiceClientCacheProperties properties,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        // В сервисах без @EnableFeignClients Feign-клиента нет, и этот бин никем не используется
+        this.delegate = feignClient.getIfAvailable();
+
+        if (delegate == null || !properties.isEnabled()) {
+            this.cache = null;
+            this.changeFeed = null;
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                cache, "event-service-client");
+
+        int batchSize = properties.getChangesBatchSize();
+        this.changeFeed = new ChangeFeedPoller("event-service",
+                properties.getChangesPollInterval(),
+                after -> delegate.getChanges(after, batchSize),
+                this::invalidate,
+                this::invalidateAll);
+    }
+
+    @Override
+    public EventDtoForRequestService getEventById(Long eventId) {
+        if (cache == null) {
+            return delegate.getEventById(eventId);
+        }
+
+        EventDtoForRequestService cached = cache.getIfPresent(eventId);
+        if (cached != null) {
+            return cached;
+        }
+
+        return this.load(eventId);
+    }
+
+    @Override
+    public EventDtoForRequestService getFreshEventById(Long eventId) {
+        if (cache == null) {
+            return delegate.getEventById(eventId);
+        }
+
+        // Свежий ответ заодно обновляет кэш, не дожидаясь ленты изменений
+        return this.load(eventId);
+    }
+
+    @Override
+    public EventDtoForRequestService incrementConfirmedRequests(Long eventId) {
+        return delegate.incrementConfirmedRequests(eventId);
+    }
+
+    @Override
+    public SlotReservationDto reserveSlots(Long eventId, int slots) {
+        return delegate.reserveSlots(eventId, slots);
+    }
+
+    @Override
+    public void releaseSlots(Long eventId, int slots) {
+        delegate.releaseSlots(eventId, slots);
+    }
+
+    @Override
+    public ChangeFeedDto getChanges(long after, int limit) {
+        return delegate.getChanges(after, limit);
+    }
+
+    private EventDtoForRequestService load(Long eventId) {
+        long observed = generation.get();
+        EventDtoForRequestService event = delegate.getEventById(eventId);
+        // Пока позиция ленты изменений неизвестна, кэш не заполняем: сброс по изменению может потеряться
+        if (event != null && changeFeed.isReady() && generation.get() == observed) {
+            cache.put(eventId, event);
+        }
+        return event;
+    }
+
+    private void invalidate(List<Long> eventIds) {
+        generation.incrementAndGet();
+        cache.invalidateAll(eventIds);
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (changeFeed != null) {
+            changeFeed.close();
+        }
+    }
+}
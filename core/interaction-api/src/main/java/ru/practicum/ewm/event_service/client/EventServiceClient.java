@@ -4,14 +4,36 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.ewm.cache.ChangeFeedDto;
 import ru.practicum.ewm.event_service.dto.EventDtoForRequestService;
+import ru.practicum.ewm.event_service.dto.SlotReservationDto;
 
-@FeignClient(name = "event-service", fallback = EventServiceClientFallback.class)
+@FeignClient(name = "event-service",
+        qualifiers = EventServiceClient.FEIGN_QUALIFIER,
+        primary = false,
+        fallback = EventServiceClientFallback.class)
 public interface EventServiceClient {
 
+    String FEIGN_QUALIFIER = "eventServiceFeignClient";
+
     @GetMapping("/events/internal/{eventId}")
     EventDtoForRequestService getEventById(@PathVariable Long eventId);
 
+    // Чтение в обход локального кэша: для проверок состояния и лимита, от которых зависит запись
+    default EventDtoForRequestService getFreshEventById(Long eventId) {
+        return getEventById(eventId);
+    }
+
     @PutMapping("/events/internal/{eventId}/increment-confirmed")
     EventDtoForRequestService incrementConfirmedRequests(@PathVariable Long eventId);
-}
\ No newline at end of file
+
+    @PutMapping("/events/internal/{eventId}/reserve")
+    SlotReservationDto reserveSlots(@PathVariable Long eventId, @RequestParam("slots") int slots);
+
+    @PutMapping("/events/internal/{eventId}/release")
+    void releaseSlots(@PathVariable Long eventId, @RequestParam("slots") int slots);
+
+    @GetMapping("/events/internal/changes")
+    ChangeFeedDto getChanges(@RequestParam("after") long after, @RequestParam("limit") int limit);
+}
@@ -0,0 +1,24 @@
+package ru.practicum.ewm.event_service.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "event-service.client.cache")
+public class EventServiceClientCacheProperties {
+
+    private boolean enabled = false;
+
+    private long maximumSize = 10_000;
+
+    // Страховка на случай пропущенного уведомления об изменении
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+    private Duration changesPollInterval = Duration.ofSeconds(2);
+
+    private int changesBatchSize = 500;
+}
@@ -2,7 +2,9 @@ package ru.practicum.ewm.event_service.client;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import ru.practicum.ewm.cache.ChangeFeedDto;
 import ru.practicum.ewm.event_service.dto.EventDtoForRequestService;
+import ru.practicum.ewm.event_service.dto.SlotReservationDto;
 
 @Slf4j
 @Component
@@ -19,4 +21,22 @@ public class EventServiceClientFallback implements EventServiceClient {
         log.warn("Fallback: операция прошла некорректно для события {} (event-service недоступен или ошибка)", eventId);
         return null;
     }
-}
\ No newline at end of file
+
+    @Override
+    public SlotReservationDto reserveSlots(Long eventId, int slots) {
+        log.warn("Fallback: не удалось занять {} мест в событии {} (event-service недоступен или ошибка)", slots, eventId);
+        return null;
+    }
+
+    @Override
+    public void releaseSlots(Long eventId, int slots) {
+        log.warn("Fallback: не удалось освободить {} мест в событии {} (event-service недоступен или ошибка)",
+                slots, eventId);
+    }
+
+    @Override
+    public ChangeFeedDto getChanges(long after, int limit) {
+        log.warn("Fallback: не удалось получить ленту изменений событий (event-service недоступен или ошибка)");
+        return null;
+    }
+}
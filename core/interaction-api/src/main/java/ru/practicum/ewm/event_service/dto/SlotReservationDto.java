@@ -0,0 +1,16 @@
+package ru.practicum.ewm.event_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotReservationDto {
+
+    private Long eventId;
+    private Integer requested;
+    // Сколько мест реально занято; меньше requested, если лимит участников исчерпан
+    private Integer granted;
+}
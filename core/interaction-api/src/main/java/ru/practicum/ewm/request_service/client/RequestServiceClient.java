@@ -2,8 +2,10 @@ package ru.practicum.ewm.request_service.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.ewm.request_service.dto.ConfirmRequestsRequest;
 import ru.practicum.ewm.request_service.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.ewm.request_service.dto.ParticipationRequestDto;
+import ru.practicum.ewm.request_service.dto.UpdRequestsStatusResult;
 
 import java.util.List;
 
@@ -23,4 +25,9 @@ public interface RequestServiceClient {
     List<ParticipationRequestDto> updateRequestStatuses(
             @RequestBody EventRequestStatusUpdateRequest request);
 
+    @PutMapping("/events/{eventId}/confirm")
+    UpdRequestsStatusResult confirmRequests(
+            @PathVariable("eventId") Long eventId,
+            @RequestBody ConfirmRequestsRequest request);
+
 }
\ No newline at end of file
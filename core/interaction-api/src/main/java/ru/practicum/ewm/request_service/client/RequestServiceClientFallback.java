@@ -2,8 +2,10 @@ package ru.practicum.ewm.request_service.client;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import ru.practicum.ewm.request_service.dto.ConfirmRequestsRequest;
 import ru.practicum.ewm.request_service.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.ewm.request_service.dto.ParticipationRequestDto;
+import ru.practicum.ewm.request_service.dto.UpdRequestsStatusResult;
 
 import java.util.List;
 
@@ -28,4 +30,10 @@ public class RequestServiceClientFallback implements RequestServiceClient {
         log.error("Вызов updateRequestStatuses({}) упал в fallback. Возврат пустого списка.", request);
         return List.of();
     }
+
+    @Override
+    public UpdRequestsStatusResult confirmRequests(Long eventId, ConfirmRequestsRequest request) {
+        log.error("Вызов confirmRequests({}, {}) упал в fallback. Возврат null.", eventId, request);
+        return null;
+    }
 }
\ No newline at end of file
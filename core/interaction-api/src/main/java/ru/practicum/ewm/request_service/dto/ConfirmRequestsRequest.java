@@ -0,0 +1,26 @@
+package ru.practicum.ewm.request_service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfirmRequestsRequest {
+
+    @Builder.Default
+    private Set<Long> requestIds = new HashSet<>();
+
+    // Сколько заявок можно подтвердить; остальные отклоняются
+    @NotNull
+    @PositiveOrZero
+    private Integer slots;
+}
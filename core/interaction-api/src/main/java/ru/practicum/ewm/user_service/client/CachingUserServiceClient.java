@@ -0,0 +1,150 @@
+package ru.practicum.ewm.user_service.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.cache.ChangeFeedDto;
+import ru.practicum.ewm.cache.ChangeFeedPoller;
+import ru.practicum.ewm.user_service.dto.UserDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Клиент user-service с локальным кэшем пользователей.
+ * Кэшируются и найденные пользователи, и ответ 404 (как Optional.empty() с отдельным коротким TTL).
+ * Записи сбрасываются по ленте изменений user-service: создание и удаление пользователя.
+ * Отсутствующий пользователь возвращается как null, как и в fallback.
+ */
+@Slf4j
+@Primary
+@Component
+public class CachingUserServiceClient implements UserServiceClient {
+
+    private final UserServiceClient delegate;
+
+    private final Cache<Long, Optional<UserDto>> cache;
+
+    private final ChangeFeedPoller changeFeed;
+
+    // Растёт при каждом сбросе; ответ, полученный до сброса, в кэш не кладём
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingUserServiceClient(@Qualifier(FEIGN_QUALIFIER) ObjectProvider<UserServiceClient> feignClient,
+                                    UserServiceClientCacheProperties properties,
+                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        // В сервисах без @EnableFeignClients Feign-клиента нет, и этот бин никем не используется
+        this.delegate = feignClient.getIfAvailable();
+
+        if (delegate == null || !properties.isEnabled()) {
+            this.cache = null;
+            this.changeFeed = null;
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new UserExpiry(properties.getExpireAfterWrite(),
+                        properties.getNotFoundExpireAfterWrite()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                cache, "user-service-client");
+
+        int batchSize = properties.getChangesBatchSize();
+        this.changeFeed = new ChangeFeedPoller("user-service",
+                properties.getChangesPollInterval(),
+                after -> delegate.getChanges(after, batchSize),
+                this::invalidate,
+                this::invalidateAll);
+    }
+
+    @Override
+    public UserDto getUserById(Long userId) {
+        if (cache == null) {
+            try {
+                return delegate.getUserById(userId);
+            } catch (FeignException.NotFound e) {
+                return null;
+            }
+        }
+
+        Optional<UserDto> cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+
+        long observed = generation.get();
+        UserDto user;
+        boolean notFound = false;
+        try {
+            user = delegate.getUserById(userId);
+        } catch (FeignException.NotFound e) {
+            user = null;
+            notFound = true;
+        }
+
+        // null без 404 — это недоступность user-service, а не отсутствие пользователя; такое не кэшируем
+        if ((user != null || notFound) && changeFeed.isReady() && generation.get() == observed) {
+            cache.put(userId, Optional.ofNullable(user));
+        }
+        return user;
+    }
+
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        return delegate.getUsersByIds(ids);
+    }
+
+    @Override
+    public ChangeFeedDto getChanges(long after, int limit) {
+        return delegate.getChanges(after, limit);
+    }
+
+    private void invalidate(List<Long> userIds) {
+        generation.incrementAndGet();
+        cache.invalidateAll(userIds);
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (changeFeed != null) {
+            changeFeed.close();
+        }
+    }
+
+    private record UserExpiry(Duration found, Duration notFound) implements Expiry<Long, Optional<UserDto>> {
+
+        @Override
+        public long expireAfterCreate(Long userId, Optional<UserDto> user, long currentTime) {
+            return (user.isPresent() ? found : notFound).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long userId, Optional<UserDto> user, long currentTime, long currentDuration) {
+            return expireAfterCreate(userId, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long userId, Optional<UserDto> user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
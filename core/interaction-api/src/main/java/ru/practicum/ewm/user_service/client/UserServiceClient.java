@@ -5,16 +5,25 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.ewm.cache.ChangeFeedDto;
 import ru.practicum.ewm.user_service.dto.UserDto;
 
 import java.util.List;
 
-@FeignClient(name = "user-service", fallback = UserServiceClientFallback.class)
+@FeignClient(name = "user-service",
+        qualifiers = UserServiceClient.FEIGN_QUALIFIER,
+        primary = false,
+        fallback = UserServiceClientFallback.class)
 public interface UserServiceClient {
 
+    String FEIGN_QUALIFIER = "userServiceFeignClient";
+
     @GetMapping("/admin/users/{userId}")
     UserDto getUserById(@PathVariable @NotNull Long userId);
 
     @GetMapping("/admin/users/by-ids")
     List<UserDto> getUsersByIds(@RequestParam(name = "ids", required = false) List<Long> ids);
+
+    @GetMapping("/admin/users/internal/changes")
+    ChangeFeedDto getChanges(@RequestParam("after") long after, @RequestParam("limit") int limit);
 }
@@ -0,0 +1,26 @@
+package ru.practicum.ewm.user_service.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-service.client.cache")
+public class UserServiceClientCacheProperties {
+
+    private boolean enabled = false;
+
+    private long maximumSize = 50_000;
+
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    // Отсутствующий пользователь может появиться, поэтому отрицательный ответ живёт недолго
+    private Duration notFoundExpireAfterWrite = Duration.ofSeconds(30);
+
+    private Duration changesPollInterval = Duration.ofSeconds(2);
+
+    private int changesBatchSize = 500;
+}
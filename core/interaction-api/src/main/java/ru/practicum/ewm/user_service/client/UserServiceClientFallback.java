@@ -2,6 +2,7 @@ package ru.practicum.ewm.user_service.client;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import ru.practicum.ewm.cache.ChangeFeedDto;
 import ru.practicum.ewm.user_service.dto.UserDto;
 
 import java.util.Collections;
@@ -20,4 +21,9 @@ public class UserServiceClientFallback {
         log.warn("Fallback: список пользователей не получен (user-service недоступен или ошибка)");
         return Collections.emptyList();
     }
+
+    public ChangeFeedDto getChanges(long after, int limit) {
+        log.warn("Fallback: не удалось получить ленту изменений пользователей (user-service недоступен или ошибка)");
+        return null;
+    }
 }
@@ -1,11 +1,14 @@
 package ru.practicum.ewm.controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.ewm.request_service.dto.ConfirmRequestsRequest;
 import ru.practicum.ewm.request_service.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.ewm.request_service.dto.ParticipationRequestDto;
+import ru.practicum.ewm.request_service.dto.UpdRequestsStatusResult;
 import ru.practicum.ewm.service.RequestService;
 
 import java.util.List;
@@ -48,4 +51,19 @@ public class InternalRequestController {
         );
         return ResponseEntity.ok(updatedDtos);
     }
+
+    @PutMapping("/events/{eventId}/confirm")
+    public ResponseEntity<UpdRequestsStatusResult> confirmRequests(
+            @PathVariable("eventId") Long eventId,
+            @RequestBody @Valid ConfirmRequestsRequest request) {
+
+        log.debug("Внутренний контроллер: подтверждение заявок eventId={}, slots={}", eventId, request.getSlots());
+
+        UpdRequestsStatusResult result = requestService.confirmRequests(
+                eventId,
+                request.getRequestIds(),
+                request.getSlots()
+        );
+        return ResponseEntity.ok(result);
+    }
 }
@@ -1,9 +1,15 @@
 package ru.practicum.ewm.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewm.model.Request;
+import ru.practicum.ewm.request_service.enums.RequestStatus;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -17,4 +23,13 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
     List<Request> findAllByIdIn(Set<Long> requestIds);
 
     boolean existsByEventIdAndRequesterId(Long eventId, Long userId);
+
+    // Блокировка строк: параллельное подтверждение тех же заявок ждёт и видит их новый статус
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Request r WHERE r.eventId = :eventId AND r.id IN :requestIds ORDER BY r.id")
+    List<Request> findAllForUpdate(Long eventId, Collection<Long> requestIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Request r SET r.status = :status WHERE r.id IN :requestIds")
+    int updateStatuses(Collection<Long> requestIds, RequestStatus status);
 }
@@ -2,6 +2,7 @@ package ru.practicum.ewm.service;
 
 import ru.practicum.ewm.request_service.dto.ParticipationRequestDto;
 import ru.practicum.ewm.request_service.dto.UpdRequestStatus;
+import ru.practicum.ewm.request_service.dto.UpdRequestsStatusResult;
 
 import java.util.List;
 import java.util.Set;
@@ -19,4 +20,6 @@ public interface RequestService {
     List<ParticipationRequestDto> getRequestsByIds(List<Long> requestIds);
 
     List<ParticipationRequestDto> updateRequestStatuses(Set<Long> requestIds, UpdRequestStatus status);
+
+    UpdRequestsStatusResult confirmRequests(Long eventId, Set<Long> requestIds, int slots);
 }
\ No newline at end of file
@@ -4,20 +4,25 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.ewm.event_service.client.EventServiceClient;
 import ru.practicum.ewm.event_service.dto.EventDtoForRequestService;
+import ru.practicum.ewm.event_service.dto.SlotReservationDto;
 import ru.practicum.ewm.event_service.enums.EventState;
 import ru.practicum.ewm.mapper.RequestMapper;
 import ru.practicum.ewm.model.Request;
 import ru.practicum.ewm.repository.RequestRepository;
 import ru.practicum.ewm.request_service.dto.ParticipationRequestDto;
 import ru.practicum.ewm.request_service.dto.UpdRequestStatus;
+import ru.practicum.ewm.request_service.dto.UpdRequestsStatusResult;
 import ru.practicum.ewm.request_service.enums.RequestStatus;
 import ru.practicum.ewm.user_service.client.UserServiceClient;
 import ru.practicum.ewm.user_service.dto.UserDto;
 import ru.practicum.ewm.user_service.exception.ConflictException;
 import ru.practicum.ewm.user_service.exception.NotFoundException;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -29,6 +34,8 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class RequestServiceImpl implements RequestService {
 
+    private static final int STATUS_UPDATE_BATCH_SIZE = 1000;
+
     private final UserServiceClient userServiceClient;
     private final EventServiceClient eventServiceClient;
     private final RequestRepository requestRepository;
@@ -66,20 +73,24 @@ public class RequestServiceImpl implements RequestService {
                 (!eventDto.getRequestModeration() || limit == 0) ? RequestStatus.CONFIRMED : RequestStatus.PENDING;
 
         if (status == RequestStatus.CONFIRMED) {
-            EventDtoForRequestService updatedEvent = eventServiceClient.incrementConfirmedRequests(eventId);
+            // Проверка лимита выше — только быстрый отказ, окончательно место занимается атомарно в event-service
+            SlotReservationDto reservation = eventServiceClient.reserveSlots(eventId, 1);
 
-            if (updatedEvent == null) {
+            if (reservation == null) {
                 throw new NotFoundException(
                         "Не удалось увеличить confirmedRequests: сервис event-service недоступен");
             }
+            if (reservation.getGranted() == 0) {
+                throw new ConflictException("Достигнут лимит запросов на участие в событии");
+            }
+            this.releaseSlotOnRollback(eventId);
         }
 
-        Request request = Request.builder()
+        Request request = requestRepository.save(Request.builder()
                 .requesterId(userDto.getId())
                 .eventId(eventId)
                 .status(status)
-                .build();
-        request = requestRepository.save(request);
+                .build());
 
         return requestMapper.toDto(request);
     }
@@ -149,6 +160,82 @@ public class RequestServiceImpl implements RequestService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional
+    public UpdRequestsStatusResult confirmRequests(Long eventId, Set<Long> requestIds, int slots) {
+        log.debug("Метод confirmRequests(); eventId={}, requestIds={}, slots={}", eventId, requestIds, slots);
+
+        if (requestIds.isEmpty()) {
+            return UpdRequestsStatusResult.builder()
+                    .confirmedRequests(List.of())
+                    .rejectedRequests(List.of())
+                    .build();
+        }
+
+        // Заявки чужих событий отбрасываются; порядок по id — раньше поданные подтверждаются первыми
+        List<Request> requests = requestRepository.findAllForUpdate(eventId, requestIds);
+
+        // Места заняты под все переданные заявки: уже обработанная заявка заняла бы место повторно
+        List<Long> notPendingIds = requests.stream()
+                .filter(request -> request.getStatus() != RequestStatus.PENDING)
+                .map(Request::getId)
+                .toList();
+        if (!notPendingIds.isEmpty()) {
+            throw new ConflictException("Заявки {} не находятся в статусе PENDING", notPendingIds);
+        }
+
+        List<Long> ids = requests.stream()
+                .map(Request::getId)
+                .toList();
+
+        List<Long> toConfirmIds = ids.subList(0, Math.min(slots, ids.size()));
+        List<Long> toRejectIds = ids.subList(toConfirmIds.size(), ids.size());
+
+        this.updateStatusesInBatches(toConfirmIds, RequestStatus.CONFIRMED);
+        this.updateStatusesInBatches(toRejectIds, RequestStatus.REJECTED);
+
+        List<ParticipationRequestDto> confirmed = new ArrayList<>(toConfirmIds.size());
+        List<ParticipationRequestDto> rejected = new ArrayList<>(toRejectIds.size());
+        for (Request request : requestRepository.findAllByIdIn(new HashSet<>(ids))) {
+            if (request.getStatus() == RequestStatus.CONFIRMED) {
+                confirmed.add(requestMapper.toDto(request));
+            } else {
+                rejected.add(requestMapper.toDto(request));
+            }
+        }
+
+        return UpdRequestsStatusResult.builder()
+                .confirmedRequests(confirmed)
+                .rejectedRequests(rejected)
+                .build();
+    }
+
+    // Место занято в event-service вне транзакции заявки: если она не зафиксирована (в том числе
+    // при ошибке на commit), место возвращается. При неизвестном исходе commit место остаётся занятым
+    private void releaseSlotOnRollback(Long eventId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (completionStatus != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    eventServiceClient.releaseSlots(eventId, 1);
+                } catch (RuntimeException e) {
+                    log.warn("Не удалось вернуть место события eventId={} после отката заявки: {}",
+                            eventId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void updateStatusesInBatches(List<Long> ids, RequestStatus status) {
+        for (int from = 0; from < ids.size(); from += STATUS_UPDATE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + STATUS_UPDATE_BATCH_SIZE, ids.size()));
+            requestRepository.updateStatuses(batch, status);
+        }
+    }
+
     private RequestStatus toRequestStatus(UpdRequestStatus updStatus) {
         return switch (updStatus) {
             case CONFIRMED -> RequestStatus.CONFIRMED;
@@ -171,7 +258,8 @@ public class RequestServiceImpl implements RequestService {
     }
 
     private EventDtoForRequestService findEventBy(Long eventId) {
-        EventDtoForRequestService eventDto = eventServiceClient.getEventById(eventId);
+        // Мимо кэша: публикация или отмена события должны сразу влиять на приём заявок
+        EventDtoForRequestService eventDto = eventServiceClient.getFreshEventById(eventId);
         if (eventDto == null) {
             throw new NotFoundException("Event id={} не найден", eventId);
         }
@@ -10,6 +10,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.ewm.cache.ChangeFeedDto;
+import ru.practicum.ewm.service.UserChangeFeed;
 import ru.practicum.ewm.user_service.dto.NewUserRequest;
 import ru.practicum.ewm.user_service.dto.UserDto;
 import ru.practicum.ewm.service.UserService;
@@ -25,6 +27,8 @@ public class AdminUserController {
 
     private final UserService userService;
 
+    private final UserChangeFeed userChangeFeed;
+
     @GetMapping
     public List<UserDto> findAll(@RequestParam(required = false) List<Long> ids,
                                  @RequestParam(defaultValue = "0", required = false) @PositiveOrZero Integer from,
@@ -60,4 +64,13 @@ public class AdminUserController {
     public List<UserDto> getUsersByIds(@RequestParam(name = "ids", required = false) List<Long> ids) {
         return userService.getUsersByIds(ids);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/internal/changes")
+    @ResponseStatus(HttpStatus.OK)
+    public ChangeFeedDto getChanges(@RequestParam long after,
+                                    @RequestParam(defaultValue = "500") int limit) {
+        log.debug("Feign-запрос: лента изменений пользователей после {}", after);
+
+        return userChangeFeed.getChanges(after, limit);
+    }
+}
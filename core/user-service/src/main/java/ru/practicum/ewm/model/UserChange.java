@@ -0,0 +1,35 @@
+package ru.practicum.ewm.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.ewm.cache.ChangeFeedEntry;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись ленты изменений пользователей. По ней клиенты user-service сбрасывают свои локальные кэши.
+ */
+@Entity
+@Table(name = "user_changes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class UserChange implements ChangeFeedEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Override
+    public Long getEntityId() {
+        return userId;
+    }
+}
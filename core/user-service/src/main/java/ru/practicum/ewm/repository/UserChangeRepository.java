@@ -0,0 +1,9 @@
+package ru.practicum.ewm.repository;
+
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.cache.ChangeFeedRepository;
+import ru.practicum.ewm.model.UserChange;
+
+@Repository
+public interface UserChangeRepository extends ChangeFeedRepository<UserChange> {
+}
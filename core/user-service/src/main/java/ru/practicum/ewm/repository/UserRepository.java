@@ -1,6 +1,7 @@
 package ru.practicum.ewm.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewm.model.User;
@@ -10,6 +11,8 @@ import java.util.List;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    Slice<User> findAllBy(Pageable pageable);
+
     List<User> findAllByIdIn(List<Long> ids, Pageable pageable);
 
     boolean existsByEmail(String email);
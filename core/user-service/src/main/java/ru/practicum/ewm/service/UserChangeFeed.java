@@ -0,0 +1,31 @@
+package ru.practicum.ewm.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.cache.ChangeFeed;
+import ru.practicum.ewm.model.UserChange;
+import ru.practicum.ewm.repository.UserChangeRepository;
+
+import java.time.Duration;
+
+/**
+ * Лента изменений пользователей для локальных кэшей в других сервисах.
+ * Создание тоже попадает в ленту: иначе в кэше клиента остался бы закэшированный ответ 404.
+ */
+@Component
+public class UserChangeFeed extends ChangeFeed<UserChange> {
+
+    public UserChangeFeed(UserChangeRepository userChangeRepository,
+                          @Value("${user-changes.retention:1h}") Duration retention,
+                          @Value("${user-changes.commit-grace:5s}") Duration commitGrace) {
+        super("пользователей", userChangeRepository,
+                (userId, changedAt) -> new UserChange(null, userId, changedAt), retention, commitGrace);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${user-changes.purge-interval-ms:600000}")
+    public void purge() {
+        super.purge();
+    }
+}
@@ -25,6 +25,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
     private final UserRepository userRepository;
+    private final UserChangeFeed userChangeFeed;
 
     @Override
     @Transactional
@@ -40,6 +41,7 @@ public class UserServiceImpl implements UserService {
             throw new BadRequestException("Localpart is too long");
         }
         User savedUser = userRepository.save(userMapper.toEntity(newDto));
+        userChangeFeed.record(savedUser.getId());
 
         log.debug("Метод add(); User создан savedUser={}", newDto);
 
@@ -55,7 +57,7 @@ public class UserServiceImpl implements UserService {
         List<User> users;
 
         if (ids == null || ids.isEmpty()) {
-            users = userRepository.findAll(pageable).getContent();
+            users = userRepository.findAllBy(pageable).getContent();
         } else {
             users = userRepository.findAllByIdIn(ids, pageable);
         }
@@ -72,6 +74,7 @@ public class UserServiceImpl implements UserService {
 
         if (userRepository.existsById(userId)) {
             userRepository.deleteById(userId);
+            userChangeFeed.record(userId);
         } else {
             throw new NotFoundException("User userId={} не найден", userId);
         }
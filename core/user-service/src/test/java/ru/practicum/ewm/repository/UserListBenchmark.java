@@ -0,0 +1,111 @@
+package ru.practicum.ewm.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение Page и Slice для GET /admin/users без ids на таблице реального размера.
+ * Запуск: mvn test -P benchmark -pl core/user-service -am
+ */
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        // Без application.yaml: его spring.config.import требует config-server
+        "spring.config.name=user-list-benchmark",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserListBenchmark {
+
+    private static final int USERS = 200_000;
+    private static final int SIZE = 10;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void sliceSkipsCountQuery() {
+        jdbcTemplate.update("INSERT INTO users (email, name) "
+                + "SELECT 'user' || n || '@mail.ru', 'User ' || n FROM generate_series(1, ?) AS n", USERS);
+        jdbcTemplate.execute("ANALYZE users");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int from : new int[]{0, USERS / 2, USERS - 10 * SIZE}) {
+            Pageable pageable = PageRequest.of(from / SIZE, SIZE);
+
+            Result page = measure(statistics, () -> userRepository.findAll(pageable).getContent());
+            Result slice = measure(statistics, () -> userRepository.findAllBy(pageable).getContent());
+
+            log.info("from={}: Page — {} запросов, медиана {} мкс, p95 {} мкс; Slice — {} запросов, медиана {} мкс, p95 {} мкс",
+                    from, page.statements(), page.median(), page.p95(),
+                    slice.statements(), slice.median(), slice.p95());
+
+            // Page на каждой непоследней странице добавляет SELECT count(*) по всей таблице
+            assertThat(page.statements()).isEqualTo(2L * ITERATIONS);
+            assertThat(slice.statements()).isEqualTo(ITERATIONS);
+        }
+    }
+
+    private Result measure(Statistics statistics, Runnable query) {
+        run(WARMUP, query, nanos -> {
+        });
+
+        statistics.clear();
+        long[] samples = new long[ITERATIONS];
+        int[] index = {0};
+        run(ITERATIONS, query, nanos -> samples[index[0]++] = nanos / 1_000);
+        long statements = statistics.getPrepareStatementCount();
+
+        Arrays.sort(samples);
+        return new Result(statements, samples[ITERATIONS / 2], samples[ITERATIONS * 95 / 100]);
+    }
+
+    private void run(int times, Runnable query, Consumer<Long> sample) {
+        for (int i = 0; i < times; i++) {
+            entityManager.clear();
+            long started = System.nanoTime();
+            query.run();
+            sample.accept(System.nanoTime() - started);
+        }
+    }
+
+    private record Result(long statements, long median, long p95) {
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.ewm.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+
+    private int failures;
+
+    private long openedAt;
+
+    CircuitBreaker(StatsClientProperties.Breaker settings) {
+        this.failureThreshold = Math.max(1, settings.getFailureThreshold());
+        this.openNanos = settings.getOpenDuration().toNanos();
+    }
+
+    synchronized boolean allowRequest() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    yield false;
+                }
+                // Пропускаем ровно один пробный запрос, остальные ждут его результата
+                state = State.HALF_OPEN;
+                yield true;
+            }
+            case HALF_OPEN -> false;
+        };
+    }
+
+    synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("stats-server снова доступен, отправка hit возобновлена");
+        }
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+    synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+            if (state == State.CLOSED) {
+                log.warn("stats-server недоступен после {} ошибок подряд, hit пишутся в локальный журнал",
+                        failures);
+            }
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.ewm.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.ewm.NewHitDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Slf4j
+class HitBuffer implements AutoCloseable {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private final BlockingQueue<NewHitDto> queue;
+
+    private final StatsClientProperties.Async settings;
+
+    private final Consumer<List<NewHitDto>> sender;
+
+    private final Counter droppedHits;
+    private final Counter failedHits;
+    private final Counter sentHits;
+
+    private final Thread flusher;
+
+    private volatile boolean running = true;
+
+    HitBuffer(StatsClientProperties.Async settings, Consumer<List<NewHitDto>> sender, MeterRegistry registry) {
+        this.settings = settings;
+        this.sender = sender;
+        this.queue = new ArrayBlockingQueue<>(settings.getCapacity());
+
+        Gauge.builder("stats.client.queue.size", queue, Collection::size)
+                .description("Количество hit, ожидающих отправки в stats-server")
+                .register(registry);
+        this.droppedHits = Counter.builder("stats.client.hits.dropped")
+                .description("Hit, отброшенные из-за переполнения очереди")
+                .register(registry);
+        this.failedHits = Counter.builder("stats.client.hits.failed")
+                .description("Hit, которые не удалось отправить в stats-server")
+                .register(registry);
+        this.sentHits = Counter.builder("stats.client.hits.sent")
+                .register(registry);
+
+        this.flusher = Thread.ofPlatform()
+                .name("stats-hit-flusher")
+                .daemon()
+                .start(this::flushLoop);
+    }
+
+    void offer(NewHitDto hit) {
+        boolean accepted = switch (settings.getOverflowPolicy()) {
+            case DROP -> queue.offer(hit);
+            case BLOCK -> offerBlocking(hit);
+        };
+
+        if (!accepted) {
+            droppedHits.increment();
+            log.debug("Очередь hit переполнена, hit отброшен: {}", hit);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        flusher.interrupt();
+
+        try {
+            flusher.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean offerBlocking(NewHitDto hit) {
+        try {
+            return queue.offer(hit, settings.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void flushLoop() {
+        int batchSize = settings.getBatchSize();
+        long flushIntervalNanos = settings.getFlushInterval().toNanos();
+
+        List<NewHitDto> batch = new ArrayList<>(batchSize);
+        long batchStartedAt = 0;
+
+        while (running) {
+            try {
+                long waitNanos = batch.isEmpty()
+                        ? flushIntervalNanos
+                        : batchStartedAt + flushIntervalNanos - System.nanoTime();
+
+                NewHitDto hit = waitNanos > 0 ? queue.poll(waitNanos, TimeUnit.NANOSECONDS) : null;
+                if (hit != null) {
+                    if (batch.isEmpty()) {
+                        batchStartedAt = System.nanoTime();
+                    }
+                    batch.add(hit);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+
+                boolean expired = !batch.isEmpty() && System.nanoTime() - batchStartedAt >= flushIntervalNanos;
+                if (batch.size() >= batchSize || expired) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+
+        // Остановка приложения: досылаем всё, что успело накопиться
+        queue.drainTo(batch);
+        while (!batch.isEmpty()) {
+            flush(batch.subList(0, Math.min(batchSize, batch.size())));
+        }
+    }
+
+    private void flush(List<NewHitDto> batch) {
+        try {
+            sender.accept(List.copyOf(batch));
+            sentHits.increment(batch.size());
+        } catch (Exception e) {
+            failedHits.increment(batch.size());
+            log.warn("Ошибка при отправке пакета из {} hit; message={}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+}
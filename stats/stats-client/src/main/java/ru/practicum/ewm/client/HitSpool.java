@@ -0,0 +1,401 @@
+package ru.practicum.ewm.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.ewm.NewHitDto;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Журнал hit на диске: сегменты фиксированного размера, отображённые в память.
+ * Запись: [длина][CRC32][пакет hit]. Позиция первой неподтверждённой записи хранится в файле checkpoint,
+ * полностью отправленные сегменты удаляются.
+ */
+@Slf4j
+class HitSpool implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int CHECKPOINT_SIZE = Long.BYTES + Integer.BYTES;
+
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final int maxSegments;
+
+    private final FileChannel lockChannel;
+
+    private final FileLock lock;
+
+    private final FileChannel checkpointChannel;
+
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+
+    private final Counter spooledHits;
+    private final Counter droppedSegments;
+
+    private long readSeq;
+
+    private int readOffset;
+
+    record Batch(List<NewHitDto> hits, long seq, int offset) {
+    }
+
+    HitSpool(StatsClientProperties.Spool settings, MeterRegistry registry) throws IOException {
+        this.directory = Path.of(settings.getDirectory());
+        this.segmentSize = settings.getSegmentSize();
+        this.maxSegments = Math.max(2, settings.getMaxSegments());
+
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve("spool.lock"), CREATE, WRITE);
+        this.lock = tryLock(lockChannel);
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Каталог журнала " + directory.toAbsolutePath() + " занят другим процессом");
+        }
+
+        try {
+            this.checkpointChannel = FileChannel.open(directory.resolve("checkpoint"), CREATE, READ, WRITE);
+            recover();
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+
+        Gauge.builder("stats.client.spool.bytes", this, HitSpool::pendingBytes)
+                .description("Объём hit в локальном журнале, ожидающих отправки в stats-server")
+                .register(registry);
+        this.spooledHits = Counter.builder("stats.client.hits.spooled")
+                .description("Hit, записанные в локальный журнал из-за недоступности stats-server")
+                .register(registry);
+        this.droppedSegments = Counter.builder("stats.client.spool.segments.dropped")
+                .description("Сегменты журнала, удалённые неотправленными из-за переполнения")
+                .register(registry);
+
+        log.info("Журнал hit открыт в {}, ожидают отправки {} байт", directory.toAbsolutePath(), pendingBytes());
+    }
+
+    synchronized void append(List<NewHitDto> hits) throws IOException {
+        byte[] payload = encode(hits);
+
+        if (payload.length > segmentSize - HEADER_SIZE) {
+            if (hits.size() == 1) {
+                throw new IOException("hit не помещается в сегмент журнала: " + payload.length + " байт");
+            }
+            int middle = hits.size() / 2;
+            append(hits.subList(0, middle));
+            append(hits.subList(middle, hits.size()));
+            return;
+        }
+
+        Segment segment = segments.getLast();
+        if (segment.limit + HEADER_SIZE + payload.length > segment.buffer.capacity()) {
+            segment = roll();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        // Длина пишется последней: до неё запись при восстановлении не видна
+        int position = segment.limit;
+        segment.buffer.put(position + HEADER_SIZE, payload);
+        segment.buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+        segment.buffer.putInt(position, payload.length);
+        segment.buffer.force(position, HEADER_SIZE + payload.length);
+        segment.limit = position + HEADER_SIZE + payload.length;
+
+        spooledHits.increment(hits.size());
+    }
+
+    /**
+     * Читает записи начиная с первой неподтверждённой, пока не наберётся maxHits.
+     * Позиция сдвигается только вызовом {@link #commit(Batch)} после успешной отправки.
+     */
+    synchronized Batch read(int maxHits) throws IOException {
+        List<NewHitDto> hits = new ArrayList<>();
+        long seq = readSeq;
+        int offset = readOffset;
+
+        for (Segment segment : segments) {
+            if (segment.seq < readSeq) {
+                continue;
+            }
+            seq = segment.seq;
+            offset = segment.seq == readSeq ? readOffset : 0;
+
+            while (offset < segment.limit && hits.size() < maxHits) {
+                int length = segment.buffer.getInt(offset);
+                hits.addAll(decode(segment.buffer, offset + HEADER_SIZE, length));
+                offset += HEADER_SIZE + length;
+            }
+            if (hits.size() >= maxHits) {
+                break;
+            }
+        }
+
+        return hits.isEmpty() ? null : new Batch(hits, seq, offset);
+    }
+
+    synchronized void commit(Batch batch) throws IOException {
+        readSeq = batch.seq();
+        readOffset = batch.offset();
+        writeCheckpoint();
+
+        while (segments.size() > 1 && segments.getFirst().seq < readSeq) {
+            deleteSegment(segments.removeFirst());
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        return pendingBytes() == 0;
+    }
+
+    synchronized long pendingBytes() {
+        long pending = 0;
+        for (Segment segment : segments) {
+            if (segment.seq > readSeq) {
+                pending += segment.limit;
+            } else if (segment.seq == readSeq) {
+                pending += Math.max(0, segment.limit - readOffset);
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            for (Segment segment : segments) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+            segments.clear();
+            checkpointChannel.close();
+        } finally {
+            lock.release();
+            lockChannel.close();
+        }
+    }
+
+    private void recover() throws IOException {
+        ByteBuffer checkpoint = ByteBuffer.allocate(CHECKPOINT_SIZE);
+        if (checkpointChannel.read(checkpoint, 0) == CHECKPOINT_SIZE) {
+            checkpoint.flip();
+            readSeq = checkpoint.getLong();
+            readOffset = checkpoint.getInt();
+        }
+
+        List<Long> sequences;
+        try (Stream<Path> files = Files.list(directory)) {
+            sequences = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Long seq : sequences) {
+            if (seq < readSeq) {
+                // Сегмент отправлен целиком, но не успел удалиться до остановки
+                Files.deleteIfExists(segmentPath(seq));
+            } else {
+                segments.addLast(openSegment(seq));
+            }
+        }
+
+        if (segments.isEmpty()) {
+            segments.addLast(openSegment(readSeq));
+        }
+
+        Segment first = segments.getFirst();
+        if (first.seq != readSeq) {
+            readSeq = first.seq;
+            readOffset = 0;
+        }
+        readOffset = Math.min(readOffset, first.limit);
+        writeCheckpoint();
+    }
+
+    private Segment openSegment(long seq) throws IOException {
+        Path path = segmentPath(seq);
+        FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+        try {
+            long size = Math.max(segmentSize, channel.size());
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(seq, path, channel, buffer, scan(path, buffer));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Находит конец последней целой записи; оборванный при падении хвост затирается нулями
+    private static int scan(Path path, MappedByteBuffer buffer) {
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                return position;
+            }
+
+            boolean valid = length > 0
+                    && length <= buffer.capacity() - position - HEADER_SIZE
+                    && buffer.getInt(position + Integer.BYTES) == checksum(buffer, position + HEADER_SIZE, length);
+            if (!valid) {
+                log.warn("Повреждённая запись в {} на позиции {}, хвост сегмента отброшен", path, position);
+                byte[] zeros = new byte[buffer.capacity() - position];
+                buffer.put(position, zeros);
+                buffer.force();
+                return position;
+            }
+
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private Segment roll() throws IOException {
+        Segment next = openSegment(segments.getLast().seq + 1);
+        segments.addLast(next);
+
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.removeFirst();
+            droppedSegments.increment();
+            log.error("Журнал hit переполнен, удалён неотправленный сегмент {}", oldest.path);
+            deleteSegment(oldest);
+
+            if (readSeq <= oldest.seq) {
+                readSeq = segments.getFirst().seq;
+                readOffset = 0;
+                writeCheckpoint();
+            }
+        }
+        return next;
+    }
+
+    private void deleteSegment(Segment segment) throws IOException {
+        segment.channel.close();
+        Files.deleteIfExists(segment.path);
+    }
+
+    private void writeCheckpoint() throws IOException {
+        ByteBuffer checkpoint = ByteBuffer.allocate(CHECKPOINT_SIZE)
+                .putLong(readSeq)
+                .putInt(readOffset)
+                .flip();
+        checkpointChannel.write(checkpoint, 0);
+        checkpointChannel.force(false);
+    }
+
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, seq, SEGMENT_SUFFIX));
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(List<NewHitDto> hits) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(hits.size() * 96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(hits.size());
+            for (NewHitDto hit : hits) {
+                out.writeUTF(nullToEmpty(hit.getApp()));
+                out.writeUTF(nullToEmpty(hit.getUri()));
+                out.writeUTF(nullToEmpty(hit.getIp()));
+
+                LocalDateTime timestamp = hit.getTimestamp();
+                out.writeLong(timestamp != null ? timestamp.toEpochSecond(ZoneOffset.UTC) : NO_TIMESTAMP);
+                out.writeInt(timestamp != null ? timestamp.getNano() : 0);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<NewHitDto> decode(ByteBuffer buffer, int offset, int length) throws IOException {
+        byte[] payload = new byte[length];
+        buffer.get(offset, payload);
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int count = in.readInt();
+            List<NewHitDto> hits = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String app = in.readUTF();
+                String uri = in.readUTF();
+                String ip = in.readUTF();
+                long epochSecond = in.readLong();
+                int nano = in.readInt();
+
+                hits.add(NewHitDto.builder()
+                        .app(app)
+                        .uri(uri)
+                        .ip(ip)
+                        .timestamp(epochSecond != NO_TIMESTAMP
+                                ? LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC)
+                                : null)
+                        .build());
+            }
+            return hits;
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static final class Segment {
+
+        private final long seq;
+
+        private final Path path;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        // Конец последней записи, сюда пишется следующая
+        private int limit;
+
+        private Segment(long seq, Path path, FileChannel channel, MappedByteBuffer buffer, int limit) {
+            this.seq = seq;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.ewm.client;
+
+public enum OverflowPolicy {
+    DROP,
+    BLOCK
+}
@@ -0,0 +1,113 @@
+package ru.practicum.ewm.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.ewm.NewHitDto;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Slf4j
+class SpoolDrainer implements AutoCloseable {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private final HitSpool spool;
+
+    private final CircuitBreaker breaker;
+
+    private final Consumer<List<NewHitDto>> sender;
+
+    private final StatsClientProperties.Spool settings;
+
+    private final Counter replayedHits;
+    private final Counter rejectedHits;
+
+    private final Thread drainer;
+
+    private volatile boolean running = true;
+
+    SpoolDrainer(HitSpool spool,
+                 CircuitBreaker breaker,
+                 Consumer<List<NewHitDto>> sender,
+                 StatsClientProperties.Spool settings,
+                 MeterRegistry registry) {
+        this.spool = spool;
+        this.breaker = breaker;
+        this.sender = sender;
+        this.settings = settings;
+
+        this.replayedHits = Counter.builder("stats.client.hits.replayed")
+                .description("Hit, досланные в stats-server из локального журнала")
+                .register(registry);
+        this.rejectedHits = Counter.builder("stats.client.hits.rejected")
+                .description("Hit из журнала, которые stats-server отклонил как некорректные")
+                .register(registry);
+
+        this.drainer = Thread.ofPlatform()
+                .name("stats-spool-drainer")
+                .daemon()
+                .start(this::drainLoop);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        drainer.interrupt();
+
+        try {
+            drainer.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        long intervalMs = settings.getDrainInterval().toMillis();
+
+        while (running) {
+            try {
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            try {
+                drain();
+            } catch (IOException e) {
+                log.error("Ошибка при чтении журнала hit; message={}", e.getMessage());
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        while (running) {
+            HitSpool.Batch batch = spool.read(settings.getDrainBatchSize());
+            if (batch == null || !breaker.allowRequest()) {
+                return;
+            }
+
+            try {
+                sender.accept(batch.hits());
+                breaker.onSuccess();
+                replayedHits.increment(batch.hits().size());
+            } catch (Exception e) {
+                if (!StatsClient.isRejected(e)) {
+                    // Пакет остаётся в журнале и уйдёт после восстановления stats-server
+                    breaker.onFailure();
+                    log.debug("Не удалось дослать hit из журнала; message={}", e.getMessage());
+                    return;
+                }
+                // Сервер доступен, но пакет не принимает: повторять бессмысленно, иначе журнал встанет
+                breaker.onSuccess();
+                rejectedHits.increment(batch.hits().size());
+                log.error("stats-server отклонил {} hit из журнала, они отброшены; message={}",
+                        batch.hits().size(), e.getMessage());
+            }
+
+            spool.commit(batch);
+        }
+    }
+}
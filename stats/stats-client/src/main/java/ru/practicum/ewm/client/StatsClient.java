@@ -1,34 +1,72 @@
 package ru.practicum.ewm.client;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 import ru.practicum.ewm.NewHitDto;
 import ru.practicum.ewm.ReqStatsParams;
 import ru.practicum.ewm.StatsDto;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Component
 public class StatsClient {
 
+    // Формат совпадает с @DateTimeFormat в ReqStatsParams на стороне stats-server
+    // Эти ответы повторятся для того же пакета при любом повторе; остальные 4xx (404, 408, 429) временные
+    private static final Set<HttpStatus> REJECTED_STATUSES = Set.of(HttpStatus.BAD_REQUEST,
+            HttpStatus.PAYLOAD_TOO_LARGE, HttpStatus.UNPROCESSABLE_ENTITY);
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final RestTemplate restTemplate;
 
     private final String serverUrl;
 
-    public StatsClient(RestTemplate template, @Value("${explore-with-me-server.url}") String serverUrl) {
+    private final CircuitBreaker breaker;
+
+    private final HitSpool spool;
+
+    private final SpoolDrainer spoolDrainer;
+
+    private final HitBuffer hitBuffer;
+
+    public StatsClient(@Qualifier(StatsClientConfig.REST_TEMPLATE) RestTemplate template,
+                       @Value("${explore-with-me-server.url}") String serverUrl,
+                       StatsClientProperties properties,
+                       ObjectProvider<MeterRegistry> meterRegistry) {
         this.restTemplate = template;
         this.serverUrl = serverUrl;
-
-        log.info("StatsClient инициализирован с сервером URL: {}", serverUrl);
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.breaker = new CircuitBreaker(properties.getBreaker());
+        this.spool = properties.getSpool().isEnabled() ? openSpool(properties.getSpool(), registry) : null;
+        this.spoolDrainer = spool != null
+                ? new SpoolDrainer(spool, breaker, this::send, properties.getSpool(), registry)
+                : null;
+        this.hitBuffer = properties.getAsync().isEnabled()
+                ? new HitBuffer(properties.getAsync(), this::deliver, registry)
+                : null;
+
+        log.info("StatsClient инициализирован с сервером URL: {}, асинхронная отправка hit: {}, журнал hit: {}",
+                serverUrl, hitBuffer != null, spool != null);
     }
 
     public void hit(HttpServletRequest eventRequest) {
@@ -44,9 +82,11 @@ public class StatsClient {
 
             log.debug("Создан hit(): {}", hitDto);
 
-            URI uri = URI.create(serverUrl + "/hit");
-
-            restTemplate.postForObject(uri, hitDto, Void.class);
+            if (hitBuffer != null) {
+                hitBuffer.offer(hitDto);
+            } else {
+                deliver(List.of(hitDto));
+            }
         } catch (Exception e) {
             log.warn("Ошибка при отправке hit; message={}", e.getMessage());
         }
@@ -57,14 +97,17 @@ public class StatsClient {
                 params.getStart(), params.getEnd(), params.getUris(), params.isUnique());
 
             UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(serverUrl + "/stats")
-                    .queryParam("start", params.getStart())
-                    .queryParam("end", params.getEnd());
+                    .queryParam("start", params.getStart().format(DATE_TIME_FORMATTER))
+                    .queryParam("end", params.getEnd().format(DATE_TIME_FORMATTER));
 
             if (params.getUris() != null && !params.getUris().isEmpty()) {
                 builder.queryParam("uris", String.join(",", params.getUris()));
             }
 
             builder.queryParam("unique", params.isUnique());
+            if (params.isApproximate()) {
+                builder.queryParam("approximate", true);
+            }
 
             URI url = builder.build().toUri();
 
@@ -83,6 +126,74 @@ public class StatsClient {
             return response.getBody();
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (hitBuffer != null) {
+            hitBuffer.close();
+        }
+        if (spoolDrainer != null) {
+            spoolDrainer.close();
+        }
+        if (spool != null) {
+            try {
+                spool.close();
+            } catch (IOException e) {
+                log.warn("Ошибка при закрытии журнала hit; message={}", e.getMessage());
+            }
+        }
+    }
+
+    private static HitSpool openSpool(StatsClientProperties.Spool settings, MeterRegistry registry) {
+        try {
+            return new HitSpool(settings, registry);
+        } catch (IOException e) {
+            // Без журнала hit молча терялись бы при недоступности stats-server
+            throw new IllegalStateException("Не удалось открыть журнал hit в " + settings.getDirectory()
+                    + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Пока stats-server недоступен, hit сразу уходят в журнал без попытки соединения
+    private void deliver(List<NewHitDto> hits) {
+        if (breaker.allowRequest()) {
+            try {
+                send(hits);
+                breaker.onSuccess();
+                return;
+            } catch (RuntimeException e) {
+                if (isRejected(e)) {
+                    // Сервер отвечает, но отклонил пакет: повтор из журнала не поможет
+                    breaker.onSuccess();
+                    throw e;
+                }
+                breaker.onFailure();
+                if (spool == null) {
+                    throw e;
+                }
+                log.debug("stats-server недоступен, {} hit записаны в журнал; message={}", hits.size(), e.getMessage());
+            }
+        } else if (spool == null) {
+            throw new IllegalStateException("stats-server недоступен, отправка hit пропущена");
+        }
+
+        try {
+            spool.append(hits);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать hit в журнал", e);
+        }
+    }
+
+    static boolean isRejected(Exception e) {
+        return e instanceof HttpClientErrorException clientError
+                && REJECTED_STATUSES.contains(HttpStatus.resolve(clientError.getStatusCode().value()));
+    }
+
+    private void send(List<NewHitDto> hits) {
+        URI uri = URI.create(serverUrl + "/hits/batch");
+
+        restTemplate.postForObject(uri, hits, Void.class);
+    }
+
     private HttpHeaders defaultHeaders() {
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setContentType(MediaType.APPLICATION_JSON);
@@ -0,0 +1,60 @@
+package ru.practicum.ewm.client;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Собственный транспорт StatsClient: пул keep-alive соединений и явные таймауты,
+ * чтобы hit не открывал новое TCP-соединение и не блокировал поток без ограничения.
+ */
+@Configuration
+public class StatsClientConfig {
+
+    public static final String REST_TEMPLATE = "statsRestTemplate";
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient statsHttpClient(StatsClientProperties properties) {
+        StatsClientProperties.Http http = properties.getHttp();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(http.getMaxConnections())
+                .setMaxConnPerRoute(http.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(http.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(http.getReadTimeout()))
+                        .setValidateAfterInactivity(TimeValue.of(http.getValidateAfterInactivity()))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(http.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(http.getReadTimeout()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(http.getKeepAlive()))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(http.getMaxIdleTime()))
+                // Повторы только удлиняют запрос: при ошибке hit уходит в журнал
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean(REST_TEMPLATE)
+    @LoadBalanced
+    public RestTemplate statsRestTemplate(@Qualifier("statsHttpClient") CloseableHttpClient statsHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(statsHttpClient));
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.ewm.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "stats-client")
+public class StatsClientProperties {
+
+    private Http http = new Http();
+
+    private Async async = new Async();
+
+    private Spool spool = new Spool();
+
+    private Breaker breaker = new Breaker();
+
+    @Data
+    public static class Http {
+
+        private int maxConnections = 50;
+
+        private int maxConnectionsPerRoute = 20;
+
+        private Duration connectTimeout = Duration.ofSeconds(1);
+
+        private Duration readTimeout = Duration.ofSeconds(3);
+
+        // Сколько ждать свободного соединения из пула
+        private Duration connectionRequestTimeout = Duration.ofMillis(500);
+
+        private Duration keepAlive = Duration.ofSeconds(30);
+
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        // Проверять соединение перед повторным использованием, если оно простаивало дольше
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Async {
+
+        // false — hit() отправляется синхронно в потоке запроса, как раньше
+        private boolean enabled = true;
+
+        private int capacity = 10_000;
+
+        private int batchSize = 100;
+
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        // Сколько ждать места в очереди при BLOCK, прежде чем всё же отбросить hit
+        private Duration blockTimeout = Duration.ofMillis(50);
+    }
+
+    @Data
+    public static class Spool {
+
+        // Локальный журнал hit на диске на время недоступности stats-server
+        private boolean enabled = false;
+
+        // Принадлежит одному процессу: если каталог занят, StatsClient не создаётся
+        private String directory = "stats-spool";
+
+        private int segmentSize = 16 * 1024 * 1024;
+
+        // При превышении самые старые сегменты удаляются, чтобы не занять весь диск
+        private int maxSegments = 64;
+
+        private int drainBatchSize = 500;
+
+        private Duration drainInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Breaker {
+
+        private int failureThreshold = 3;
+
+        // Сколько не ходить в stats-server после срабатывания, прежде чем пустить пробный запрос
+        private Duration openDuration = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.ewm.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.NewHitDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HitBufferTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void flushesFullBatchWithoutWaitingForInterval() throws InterruptedException {
+        List<List<NewHitDto>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch sent = new CountDownLatch(1);
+
+        try (HitBuffer buffer = new HitBuffer(settings(3, Duration.ofMinutes(1)), batch -> {
+            batches.add(batch);
+            sent.countDown();
+        }, registry)) {
+            for (int i = 0; i < 3; i++) {
+                buffer.offer(hit(i));
+            }
+
+            assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(batches.getFirst()).hasSize(3);
+    }
+
+    @Test
+    void flushesPartialBatchAfterInterval() throws InterruptedException {
+        CountDownLatch sent = new CountDownLatch(1);
+
+        try (HitBuffer buffer = new HitBuffer(settings(100, Duration.ofMillis(50)), batch -> sent.countDown(),
+                registry)) {
+            buffer.offer(hit(1));
+
+            assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void sendsRemainingHitsOnClose() {
+        List<NewHitDto> sent = new CopyOnWriteArrayList<>();
+
+        HitBuffer buffer = new HitBuffer(settings(100, Duration.ofMinutes(1)), sent::addAll, registry);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(hit(i));
+        }
+        buffer.close();
+
+        assertThat(sent).hasSize(5);
+    }
+
+    @Test
+    void countsDroppedHitsWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        StatsClientProperties.Async settings = settings(1, Duration.ofMillis(10));
+        settings.setCapacity(1);
+
+        try (HitBuffer buffer = new HitBuffer(settings, batch -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, registry)) {
+            // Первый hit забирает отправитель и зависает, второй занимает очередь, остальные отбрасываются
+            buffer.offer(hit(0));
+            Thread.sleep(100);
+            for (int i = 1; i < 5; i++) {
+                buffer.offer(hit(i));
+            }
+
+            assertThat(registry.counter("stats.client.hits.dropped").count()).isEqualTo(3);
+            blocked.countDown();
+        }
+    }
+
+    @Test
+    void countsFailedHitsWhenSenderThrows() throws InterruptedException {
+        CountDownLatch attempted = new CountDownLatch(1);
+
+        try (HitBuffer buffer = new HitBuffer(settings(2, Duration.ofMinutes(1)), batch -> {
+            attempted.countDown();
+            throw new IllegalStateException("stats-server недоступен");
+        }, registry)) {
+            buffer.offer(hit(1));
+            buffer.offer(hit(2));
+
+            assertThat(attempted.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(registry.counter("stats.client.hits.failed").count()).isEqualTo(2);
+    }
+
+    private static StatsClientProperties.Async settings(int batchSize, Duration flushInterval) {
+        StatsClientProperties.Async settings = new StatsClientProperties.Async();
+        settings.setBatchSize(batchSize);
+        settings.setFlushInterval(flushInterval);
+        return settings;
+    }
+
+    private static NewHitDto hit(int i) {
+        return NewHitDto.builder()
+                .app("ewm-main-service")
+                .uri("/events/" + i)
+                .ip("192.168.0." + i)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+package ru.practicum.ewm.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.ewm.NewHitDto;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HitSpoolTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void readsAppendedHitsUntilCommitted() throws IOException {
+        try (HitSpool spool = open(64)) {
+            spool.append(hits(0, 3));
+
+            HitSpool.Batch batch = spool.read(10);
+            assertThat(batch.hits()).isEqualTo(hits(0, 3));
+            // Без commit позиция не сдвигается: та же пачка читается снова
+            assertThat(spool.read(10).hits()).isEqualTo(hits(0, 3));
+
+            spool.commit(batch);
+            assertThat(spool.isEmpty()).isTrue();
+            assertThat(spool.read(10)).isNull();
+        }
+    }
+
+    @Test
+    void rollsOverSegmentsAndDeletesDrainedOnes() throws IOException {
+        try (HitSpool spool = open(64)) {
+            for (int i = 0; i < 40; i++) {
+                spool.append(hits(i, 1));
+            }
+            assertThat(segmentFiles()).hasSizeGreaterThan(2);
+
+            List<NewHitDto> read = new ArrayList<>();
+            HitSpool.Batch batch;
+            while ((batch = spool.read(7)) != null) {
+                read.addAll(batch.hits());
+                spool.commit(batch);
+            }
+
+            assertThat(read).isEqualTo(hits(0, 40));
+            // Остаётся только текущий сегмент, в который идёт запись
+            assertThat(segmentFiles()).hasSize(1);
+        }
+    }
+
+    @Test
+    void recoversUnsentHitsAfterRestart() throws IOException {
+        try (HitSpool spool = open(64)) {
+            for (int i = 0; i < 40; i++) {
+                spool.append(hits(i, 1));
+            }
+        }
+
+        try (HitSpool spool = open(64)) {
+            assertThat(spool.read(100).hits()).isEqualTo(hits(0, 40));
+
+            // Запись продолжается после восстановленных записей
+            spool.append(hits(40, 1));
+            assertThat(spool.read(100).hits()).isEqualTo(hits(0, 41));
+        }
+    }
+
+    @Test
+    void resumesFromCheckpointAfterRestart() throws IOException {
+        try (HitSpool spool = open(64)) {
+            for (int i = 0; i < 30; i++) {
+                spool.append(hits(i, 1));
+            }
+            spool.commit(spool.read(20));
+            // Прочитано, но не подтверждено: после перезапуска отправляется снова
+            spool.read(5);
+        }
+
+        try (HitSpool spool = open(64)) {
+            assertThat(spool.read(100).hits()).isEqualTo(hits(20, 10));
+        }
+    }
+
+    @Test
+    void discardsTornTailOnRestart() throws IOException {
+        try (HitSpool spool = open(64)) {
+            spool.append(hits(0, 2));
+            spool.append(hits(2, 2));
+        }
+
+        // Запись оборвалась: длина успела попасть на диск, а данные — нет
+        Path segment = segmentFiles().getFirst();
+        try (FileChannel channel = FileChannel.open(segment, READ, WRITE)) {
+            int end = endOfRecords(channel);
+            channel.write(ByteBuffer.allocate(2 * Integer.BYTES).putInt(100).putInt(12345).flip(), end);
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), end + 2 * Integer.BYTES);
+        }
+
+        try (HitSpool spool = open(64)) {
+            assertThat(spool.read(100).hits()).isEqualTo(hits(0, 4));
+
+            spool.append(hits(4, 1));
+        }
+
+        try (HitSpool spool = open(64)) {
+            assertThat(spool.read(100).hits()).isEqualTo(hits(0, 5));
+        }
+    }
+
+    @Test
+    void dropsOldestSegmentWhenFull() throws IOException {
+        try (HitSpool spool = open(2)) {
+            int appended = 0;
+            while (segmentFiles().size() < 2 || registry.counter("stats.client.spool.segments.dropped").count() == 0) {
+                spool.append(hits(appended++, 1));
+            }
+
+            assertThat(segmentFiles()).hasSize(2);
+            List<NewHitDto> read = spool.read(1000).hits();
+            assertThat(read.getLast()).isEqualTo(hits(appended - 1, 1).getFirst());
+            assertThat(read.getFirst()).isNotEqualTo(hits(0, 1).getFirst());
+        }
+    }
+
+    @Test
+    void secondSpoolOnSameDirectoryFails() throws IOException {
+        try (HitSpool ignored = open(64)) {
+            assertThatThrownBy(() -> open(64))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("занят другим процессом");
+        }
+    }
+
+    private HitSpool open(int maxSegments) throws IOException {
+        StatsClientProperties.Spool settings = new StatsClientProperties.Spool();
+        settings.setEnabled(true);
+        settings.setDirectory(directory.toString());
+        settings.setSegmentSize(SEGMENT_SIZE);
+        settings.setMaxSegments(maxSegments);
+        return new HitSpool(settings, registry);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".spool"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // Конец последней записи: записи идут подряд как [длина][CRC32][данные]
+    private static int endOfRecords(FileChannel channel) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        int position = 0;
+        while (true) {
+            length.clear();
+            channel.read(length, position);
+            int value = length.flip().getInt();
+            if (value == 0) {
+                return position;
+            }
+            position += 2 * Integer.BYTES + value;
+        }
+    }
+
+    private static List<NewHitDto> hits(int from, int count) {
+        return IntStream.range(from, from + count)
+                .mapToObj(i -> NewHitDto.builder()
+                        .app("ewm-main-service")
+                        .uri("/events/" + i)
+                        .ip("10.0.0." + i % 256)
+                        .timestamp(LocalDateTime.of(2024, 3, 1, 12, 0).plusSeconds(i))
+                        .build())
+                .toList();
+    }
+}
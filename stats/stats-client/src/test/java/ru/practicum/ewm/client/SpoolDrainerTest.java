@@ -0,0 +1,94 @@
+package ru.practicum.ewm.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import ru.practicum.ewm.NewHitDto;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpoolDrainerTest {
+
+    private static final List<NewHitDto> HITS = List.of(NewHitDto.builder()
+            .app("ewm-main-service")
+            .uri("/events/1")
+            .ip("10.0.0.1")
+            .timestamp(LocalDateTime.of(2024, 3, 1, 12, 0))
+            .build());
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void batchRejectedAsInvalidIsDropped() throws Exception {
+        try (HitSpool spool = open()) {
+            spool.append(HITS);
+
+            try (SpoolDrainer ignored = drainer(spool, HttpStatus.UNPROCESSABLE_ENTITY, new CountDownLatch(1))) {
+                long deadline = System.currentTimeMillis() + 5_000;
+                while (!spool.isEmpty() && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+            }
+
+            assertThat(spool.isEmpty()).isTrue();
+            assertThat(registry.counter("stats.client.hits.rejected").count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void batchRefusedTemporarilyStaysInSpool() throws Exception {
+        for (HttpStatus status : List.of(HttpStatus.NOT_FOUND, HttpStatus.REQUEST_TIMEOUT,
+                HttpStatus.TOO_MANY_REQUESTS)) {
+            try (HitSpool spool = open()) {
+                spool.append(HITS);
+
+                CountDownLatch sent = new CountDownLatch(1);
+                try (SpoolDrainer ignored = drainer(spool, status, sent)) {
+                    assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+                }
+
+                HitSpool.Batch batch = spool.read(10);
+                assertThat(batch.hits()).as("статус %s", status).isEqualTo(HITS);
+                spool.commit(batch);
+                assertThat(registry.counter("stats.client.hits.rejected").count()).isZero();
+            }
+        }
+    }
+
+    // Предохранитель открывается после первой ошибки: отказанный пакет не перечитывается до конца теста
+    private SpoolDrainer drainer(HitSpool spool, HttpStatus status, CountDownLatch sent) {
+        StatsClientProperties.Breaker breakerSettings = new StatsClientProperties.Breaker();
+        breakerSettings.setFailureThreshold(1);
+        breakerSettings.setOpenDuration(Duration.ofMinutes(1));
+
+        return new SpoolDrainer(spool, new CircuitBreaker(breakerSettings), hits -> {
+            sent.countDown();
+            throw HttpClientErrorException.create(status, status.getReasonPhrase(), null, null, null);
+        }, settings(), registry);
+    }
+
+    private HitSpool open() throws IOException {
+        return new HitSpool(settings(), registry);
+    }
+
+    private StatsClientProperties.Spool settings() {
+        StatsClientProperties.Spool settings = new StatsClientProperties.Spool();
+        settings.setEnabled(true);
+        settings.setDirectory(directory.toString());
+        settings.setDrainInterval(Duration.ofMillis(10));
+        return settings;
+    }
+}
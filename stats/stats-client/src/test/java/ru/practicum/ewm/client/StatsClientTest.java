@@ -0,0 +1,96 @@
+package ru.practicum.ewm.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.ewm.NewHitDto;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatsClientTest {
+
+    @TempDir
+    private Path directory;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void doesNotStartWhenSpoolIsLocked() throws IOException {
+        StatsClientProperties properties = properties();
+
+        // Каталог уже занят другим экземпляром
+        try (HitSpool ignored = new HitSpool(properties.getSpool(), registry)) {
+            assertThatThrownBy(() -> new StatsClient(new RestTemplate(), "http://localhost:9090", properties,
+                    meterRegistry()))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining(directory.toString());
+        }
+    }
+
+    @Test
+    void hitRefusedTemporarilyIsSpooled() throws IOException {
+        assertThat(spooledAfterResponse(HttpStatus.TOO_MANY_REQUESTS)).hasSize(1);
+        assertThat(spooledAfterResponse(HttpStatus.NOT_FOUND)).hasSize(1);
+    }
+
+    @Test
+    void hitRejectedAsInvalidIsNotSpooled() throws IOException {
+        assertThat(spooledAfterResponse(HttpStatus.BAD_REQUEST)).isEmpty();
+        assertThat(spooledAfterResponse(HttpStatus.PAYLOAD_TOO_LARGE)).isEmpty();
+    }
+
+    // Отправляет один hit при ответе stats-server со статусом status и возвращает то, что попало в журнал
+    private List<NewHitDto> spooledAfterResponse(HttpStatus status) throws IOException {
+        StatsClientProperties properties = properties();
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.postForObject(any(URI.class), any(), eq(Void.class)))
+                .thenThrow(HttpClientErrorException.create(status, status.getReasonPhrase(), null, null, null));
+
+        StatsClient client = new StatsClient(restTemplate, "http://localhost:9090", properties, meterRegistry());
+        client.hit(new MockHttpServletRequest("GET", "/events/1"));
+        client.shutdown();
+
+        try (HitSpool spool = new HitSpool(properties.getSpool(), registry)) {
+            HitSpool.Batch batch = spool.read(10);
+            if (batch == null) {
+                return List.of();
+            }
+            spool.commit(batch);
+            return batch.hits();
+        }
+    }
+
+    private StatsClientProperties properties() {
+        StatsClientProperties properties = new StatsClientProperties();
+        properties.getAsync().setEnabled(false);
+        properties.getSpool().setEnabled(true);
+        properties.getSpool().setDirectory(directory.toString());
+        // Журнал читает тест, а не фоновая досылка
+        properties.getSpool().setDrainInterval(Duration.ofHours(1));
+        return properties;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ObjectProvider<MeterRegistry> meterRegistry() {
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(registry);
+        return meterRegistry;
+    }
+}
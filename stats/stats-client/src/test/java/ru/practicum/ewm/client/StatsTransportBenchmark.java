@@ -0,0 +1,158 @@
+package ru.practicum.ewm.client;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.ewm.NewHitDto;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение транспорта StatsClient (пул HttpComponents) с RestTemplate на SimpleClientHttpRequestFactory
+ * под нагрузкой POST /hits/batch на локальный HTTP-сервер.
+ * Запуск: mvn test -P benchmark -pl stats/stats-client -am
+ */
+@Slf4j
+class StatsTransportBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int REQUESTS = 20_000;
+    private static final int[] THREADS = {1, 32};
+
+    private final StatsClientProperties properties = new StatsClientProperties();
+
+    // Соединение сервер различает по адресу клиента: новый порт — новое TCP-соединение
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private URI uri;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1_024);
+        server.createContext("/hits/batch", exchange -> {
+            connections.add(exchange.getRemoteAddress());
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(201, -1);
+            exchange.close();
+        });
+        serverExecutor = Executors.newFixedThreadPool(64);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/hits/batch");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void pooledTransportReusesConnections() throws Exception {
+        StatsClientProperties.Http http = properties.getHttp();
+
+        SimpleClientHttpRequestFactory simpleFactory = new SimpleClientHttpRequestFactory();
+        simpleFactory.setConnectTimeout(http.getConnectTimeout());
+        simpleFactory.setReadTimeout(http.getReadTimeout());
+        RestTemplate simple = new RestTemplate(simpleFactory);
+
+        try (CloseableHttpClient httpClient = new StatsClientConfig().statsHttpClient(properties)) {
+            RestTemplate pooled = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+
+            for (int threads : THREADS) {
+                Result simpleResult = measure(simple, threads);
+                Result pooledResult = measure(pooled, threads);
+
+                log.info("Потоков {}: Simple — {} запр/с, медиана {} мкс, p95 {} мкс, соединений {}; "
+                                + "пул — {} запр/с, медиана {} мкс, p95 {} мкс, соединений {}",
+                        threads, simpleResult.throughput(), simpleResult.median(), simpleResult.p95(),
+                        simpleResult.connections(), pooledResult.throughput(), pooledResult.median(),
+                        pooledResult.p95(), pooledResult.connections());
+
+                // Пул не открывает соединений больше лимита на маршрут, сколько бы потоков ни писали
+                assertThat(pooledResult.connections()).isLessThanOrEqualTo(http.getMaxConnectionsPerRoute());
+                if (threads > 5) {
+                    // HttpURLConnection держит не больше 5 простаивающих соединений на хост (http.maxConnections),
+                    // остальные закрываются после запроса, и следующий запрос открывает новое
+                    assertThat(simpleResult.connections()).isGreaterThan(pooledResult.connections());
+                }
+            }
+        }
+    }
+
+    private Result measure(RestTemplate restTemplate, int threads) throws Exception {
+        run(restTemplate, threads, WARMUP, new long[WARMUP]);
+
+        connections.clear();
+        long[] samples = new long[REQUESTS];
+        long started = System.nanoTime();
+        run(restTemplate, threads, REQUESTS, samples);
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(samples);
+        return new Result(REQUESTS * TimeUnit.SECONDS.toNanos(1) / elapsed,
+                samples[REQUESTS / 2], samples[REQUESTS * 95 / 100], connections.size());
+    }
+
+    // Каждый поток отправляет свою часть запросов; в samples — задержка каждого запроса в мкс
+    private void run(RestTemplate restTemplate, int threads, int requests, long[] samples) throws Exception {
+        List<NewHitDto> hits = List.of(NewHitDto.builder()
+                .app("ewm-main-service")
+                .uri("/events/1")
+                .ip("10.0.0.1")
+                .timestamp(LocalDateTime.now())
+                .build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int from = requests * t / threads;
+            int to = requests * (t + 1) / threads;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = from; i < to; i++) {
+                    long requestStarted = System.nanoTime();
+                    restTemplate.postForObject(uri, hits, Void.class);
+                    samples[i] = (System.nanoTime() - requestStarted) / 1_000;
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+    }
+
+    private record Result(long throughput, long median, long p95, int connections) {
+    }
+}
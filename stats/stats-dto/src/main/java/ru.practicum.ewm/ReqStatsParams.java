@@ -28,4 +28,8 @@ public class ReqStatsParams {
 
     @Builder.Default
     private boolean unique = false;
-}
\ No newline at end of file
+
+    // Для unique=true: оценка по HyperLogLog-скетчам, погрешность около 1.6%
+    @Builder.Default
+    private boolean approximate = false;
+}
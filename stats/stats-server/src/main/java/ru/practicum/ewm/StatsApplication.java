@@ -2,8 +2,10 @@ package ru.practicum.ewm;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "ru.practicum.ewm")
+@EnableScheduling
 public class StatsApplication {
     public static void main(String[] args) {
         SpringApplication.run(StatsApplication.class, args);
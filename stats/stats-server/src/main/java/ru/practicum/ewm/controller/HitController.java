@@ -1,21 +1,22 @@
 package ru.practicum.ewm.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.ewm.NewHitDto;
 import ru.practicum.ewm.StatsDto;
 import ru.practicum.ewm.service.StatsService;
 import ru.practicum.ewm.service.StatsServiceImpl;
 
+import java.util.List;
+
 @Slf4j
 @RestController
-@RequestMapping("/hit")
 public class HitController {
 
     private final StatsService service;
@@ -24,11 +25,19 @@ public class HitController {
         this.service = service;
     }
 
-    @PostMapping
+    @PostMapping("/hit")
     public ResponseEntity<StatsDto> createHit(@Valid @RequestBody NewHitDto newHitDto) {
         log.info("Метод createHit hit: {}", newHitDto);
 
         StatsDto result = service.hit(newHitDto);
         return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/hits/batch")
+    public ResponseEntity<Void> createHits(@RequestBody @NotEmpty List<@Valid NewHitDto> hits) {
+        log.info("Метод createHits; количество hit: {}", hits.size());
+
+        service.hits(hits);
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+}
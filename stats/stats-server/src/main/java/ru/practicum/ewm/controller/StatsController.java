@@ -1,8 +1,13 @@
 package ru.practicum.ewm.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -10,8 +15,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.ewm.ReqStatsParams;
 import ru.practicum.ewm.StatsDto;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.ewm.service.StatsService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -20,8 +28,12 @@ import java.util.List;
 @RequestMapping("/stats")
 public class StatsController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final StatsService statsService;
 
+    private final ObjectMapper objectMapper;
+
     @GetMapping
     public ResponseEntity<List<StatsDto>> getStats(@ModelAttribute @Valid ReqStatsParams params) {
         log.info("Метод getStats(); params={}", params);
@@ -29,4 +41,31 @@ public class StatsController {
         List<StatsDto> result = statsService.getStats(params);
         return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+
+    // Та же статистика построчно в NDJSON: строки пишутся в ответ по мере чтения из БД
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStats(@ModelAttribute @Valid ReqStatsParams params) {
+        log.info("Метод exportStats(); params={}", params);
+
+        // Ошибка внутри тела пришла бы клиенту обрывом уже начатого ответа 200, а не кодом 400
+        statsService.checkParams(params);
+
+        // Без сброса буфера после каждой строки: ответ отправляется блоками буфера генератора
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // NDJSON: перевод строки после каждой записи, включая последнюю
+                generator.setRootValueSeparator(null);
+                statsService.streamStats(params, dto -> {
+                    try {
+                        writer.writeValue(generator, dto);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
@@ -1,12 +1,13 @@
 package ru.practicum.ewm.entity;
 
-import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
-@Entity
-@Table(name = "hits")
+/**
+ * Hit в виде, в котором его принимает stats-server. В таблице hits app и uri заменены id из словарей
+ * apps и uris, ip хранится как inet; запись и чтение идут через StatsRepository.
+ */
 @Getter
 @Setter
 @ToString
@@ -15,19 +16,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Hit {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @Column
     private String app;
 
-    @Column
     private String uri;
 
-    @Column
+    // Нормализован IpAddresses; null, если исходная строка не ip-адрес
     private String ip;
 
-    @Column
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+}
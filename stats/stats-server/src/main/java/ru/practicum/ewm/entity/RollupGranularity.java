@@ -0,0 +1,39 @@
+package ru.practicum.ewm.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS),
+    MONTH(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDateTime floor(LocalDateTime dateTime) {
+        // truncatedTo поддерживает единицы не крупнее суток
+        return unit == ChronoUnit.MONTHS
+                ? dateTime.toLocalDate().withDayOfMonth(1).atStartOfDay()
+                : dateTime.truncatedTo(unit);
+    }
+
+    public LocalDateTime ceil(LocalDateTime dateTime) {
+        LocalDateTime floor = floor(dateTime);
+        return floor.equals(dateTime) ? floor : floor.plus(1, unit);
+    }
+
+    // null — мельче минуты корзин нет, остаток считается по сырым hits
+    public RollupGranularity finer() {
+        return switch (this) {
+            case MONTH -> DAY;
+            case DAY -> HOUR;
+            case HOUR -> MINUTE;
+            case MINUTE -> null;
+        };
+    }
+}
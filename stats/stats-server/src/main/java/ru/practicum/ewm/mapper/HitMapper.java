@@ -6,13 +6,17 @@ import ru.practicum.ewm.NewHitDto;
 import ru.practicum.ewm.StatsDto;
 import ru.practicum.ewm.entity.Hit;
 
-@Mapper(componentModel = "spring")
+import java.util.List;
+
+@Mapper(componentModel = "spring", imports = IpAddresses.class)
 public interface HitMapper {
 
 
-    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "ip", expression = "java(IpAddresses.normalize(dto.getIp()))")
     Hit toEntity(NewHitDto dto);
 
+    List<Hit> toEntities(List<NewHitDto> dtos);
+
     @Mapping(target = "hits", ignore = true)
     StatsDto toStatsDto(Hit hit);
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package ru.practicum.ewm.mapper;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.regex.Pattern;
+
+/**
+ * Приводит ip к тому виду, в котором PostgreSQL выводит inet через host().
+ * Так скетчи, собранные при записи, и ip, прочитанные из hits, хэшируются одинаково.
+ */
+public final class IpAddresses {
+
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]+");
+
+    private IpAddresses() {
+    }
+
+    // null — строка не является ip-адресом
+    public static String normalize(String ip) {
+        if (ip == null) {
+            return null;
+        }
+
+        String value = ip.trim();
+        if (IPV4.matcher(value).matches()) {
+            return normalizeIpv4(value);
+        }
+        if (value.indexOf(':') < 0 || !IPV6.matcher(value).matches()) {
+            return null;
+        }
+
+        try {
+            // Строка с ':' разбирается как литерал IPv6, без обращения к DNS
+            InetAddress address = InetAddress.getByName(value);
+            if (address instanceof Inet4Address) {
+                // Java сворачивает IPv4-mapped адрес в IPv4, а inet остаётся IPv6 и выводится как ::ffff:a.b.c.d
+                return "::ffff:" + address.getHostAddress();
+            }
+            return address instanceof Inet6Address ? formatIpv6(address.getAddress()) : null;
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static String normalizeIpv4(String value) {
+        String[] octets = value.split("\\.");
+        StringBuilder result = new StringBuilder();
+        for (String octet : octets) {
+            int number = Integer.parseInt(octet);
+            if (number > 255) {
+                return null;
+            }
+            if (!result.isEmpty()) {
+                result.append('.');
+            }
+            result.append(number);
+        }
+        return result.toString();
+    }
+
+    // Самая длинная серия из двух и более нулевых групп сворачивается в "::", как в inet_ntop
+    private static String formatIpv6(byte[] bytes) {
+        int[] words = new int[8];
+        for (int i = 0; i < 8; i++) {
+            words[i] = ((bytes[2 * i] & 0xff) << 8) | (bytes[2 * i + 1] & 0xff);
+        }
+
+        int bestStart = -1;
+        int bestLength = 0;
+        for (int i = 0; i < 8; ) {
+            if (words[i] != 0) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < 8 && words[i] == 0) {
+                i++;
+            }
+            if (i - start > bestLength) {
+                bestStart = start;
+                bestLength = i - start;
+            }
+        }
+        if (bestLength < 2) {
+            bestStart = -1;
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            if (i == bestStart) {
+                result.append(i == 0 ? "::" : ":");
+                i += bestLength - 1;
+                continue;
+            }
+            // IPv4-совместимый адрес ::a.b.c.d
+            if (i == 6 && bestStart == 0 && bestLength == 6) {
+                result.append(bytes[12] & 0xff).append('.').append(bytes[13] & 0xff).append('.')
+                        .append(bytes[14] & 0xff).append('.').append(bytes[15] & 0xff);
+                break;
+            }
+            result.append(Integer.toHexString(words[i]));
+            if (i < 7) {
+                result.append(':');
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.ewm.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.entity.RollupGranularity;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Обслуживает секции таблицы hits: заранее создаёт будущие и убирает устаревшие.
+ * Удаление старых данных целой секцией не оставляет мёртвых строк и раздутых индексов, в отличие от DELETE.
+ * Строки секции по умолчанию и корзины hit_rollups и hit_sketches старше той же границы удаляются вслед
+ * за секциями, чтобы статистика за убранный период не продолжала отвечать по ним.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HitPartitionManager {
+
+    private static final String PARENT = "hits";
+
+    private static final String DEFAULT_PARTITION = "hits_default";
+
+    private static final DateTimeFormatter NAME_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\('([^']+)'\\) TO \\('([^']+)'\\)");
+
+    private static final String SELECT_PARTITIONS = "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) " +
+            "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = '" + PARENT + "'::regclass";
+
+    private static final List<String> AGGREGATE_TABLES = List.of("hit_rollups", "hit_sketches");
+
+    // Короткие транзакции: удаление не блокирует надолго запись пакетов hits и upsert корзин
+    private static final int DELETE_BATCH = 10_000;
+
+    // Несколько экземпляров stats-server не должны менять секции одновременно
+    private static final String LOCK = "SELECT pg_advisory_xact_lock(hashtext('" + PARENT + "_partitions'))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final HitPartitionProperties properties;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${stats.partitions.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        try {
+            this.createPartitions();
+            this.removeExpiredPartitions();
+        } catch (Exception e) {
+            log.error("Ошибка обслуживания секций {}; message={}", PARENT, e.getMessage());
+        }
+    }
+
+    private void createPartitions() {
+        PartitionInterval interval = properties.getInterval();
+        LocalDateTime from = interval.floor(LocalDateTime.now());
+
+        for (int i = 0; i <= properties.getPremake(); i++) {
+            LocalDateTime to = interval.plus(from, 1);
+            LocalDateTime partitionFrom = from;
+            transactionTemplate.executeWithoutResult(status -> this.createPartition(partitionFrom, to));
+            from = to;
+        }
+    }
+
+    private void createPartition(LocalDateTime from, LocalDateTime to) {
+        jdbcTemplate.execute(LOCK);
+
+        // Секция, пересекающаяся с нужным диапазоном, уже есть (например, создана при другом interval)
+        boolean exists = this.findPartitions().stream()
+                .anyMatch(partition -> partition.from().isBefore(to) && from.isBefore(partition.to()));
+        if (exists) {
+            return;
+        }
+
+        String name = PARENT + "_p" + from.format(NAME_SUFFIX);
+        String range = "FROM ('" + from.format(BOUND) + "') TO ('" + to.format(BOUND) + "')";
+
+        // Строки этого диапазона могли попасть в секцию по умолчанию: переносим их, иначе ATTACH не пройдёт.
+        // Блокировка не даёт вставить в неё новые строки диапазона до конца транзакции
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN SHARE ROW EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + PARENT + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                        " WHERE timestamp >= ? AND timestamp < ? RETURNING *) " +
+                        "INSERT INTO " + name + " SELECT * FROM moved",
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + name + " FOR VALUES " + range);
+
+        log.info("Создана секция {} {}; перенесено из {}: {}", name, range, DEFAULT_PARTITION, moved);
+    }
+
+    private void removeExpiredPartitions() {
+        if (properties.getRetention() <= 0) {
+            return;
+        }
+
+        PartitionInterval interval = properties.getInterval();
+        LocalDateTime cutoff = interval.plus(interval.floor(LocalDateTime.now()), -properties.getRetention());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute(LOCK);
+
+            for (Partition partition : this.findPartitions()) {
+                if (partition.to().isAfter(cutoff)) {
+                    continue;
+                }
+
+                switch (properties.getRetentionAction()) {
+                    case DROP -> jdbcTemplate.execute("DROP TABLE " + partition.name());
+                    case DETACH -> jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " +
+                            partition.name());
+                }
+                log.info("Секция {} старше {}: {}", partition.name(), cutoff, properties.getRetentionAction());
+            }
+        });
+
+        this.removeExpiredDefaultRows(cutoff);
+        this.removeExpiredAggregates(cutoff);
+    }
+
+    // Секция по умолчанию живёт всегда, поэтому её строки старше cutoff удаляются DELETE при любом retention-action
+    private void removeExpiredDefaultRows(LocalDateTime cutoff) {
+        long total = this.deleteInBatches(DEFAULT_PARTITION, "timestamp < ?", Timestamp.valueOf(cutoff));
+        if (total > 0) {
+            log.info("Удалены строки {} старше {}: {}", DEFAULT_PARTITION, cutoff, total);
+        }
+    }
+
+    // Удаляются только корзины, целиком лежащие до cutoff: месячная корзина с началом до cutoff
+    // может захватывать ещё не убранные сутки и живёт до конца своего месяца
+    private void removeExpiredAggregates(LocalDateTime cutoff) {
+        for (String table : AGGREGATE_TABLES) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                LocalDateTime bucketCutoff = granularity.floor(cutoff);
+                long total = this.deleteInBatches(table, "granularity = ? AND bucket_start < ?",
+                        granularity.name(), Timestamp.valueOf(bucketCutoff));
+                if (total > 0) {
+                    log.info("Удалены корзины {} {} старше {}: {}", table, granularity, bucketCutoff, total);
+                }
+            }
+        }
+    }
+
+    private long deleteInBatches(String table, String condition, Object... args) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM " + table + " WHERE ctid = ANY(ARRAY(" +
+                    "SELECT ctid FROM " + table + " WHERE " + condition + " LIMIT " + DELETE_BATCH + "))", args);
+            total += deleted;
+        } while (deleted == DELETE_BATCH);
+        return total;
+    }
+
+    // Секция по умолчанию не имеет границ и в список не попадает
+    private List<Partition> findPartitions() {
+        return jdbcTemplate.query(SELECT_PARTITIONS, (rs, rowNum) -> {
+            Matcher matcher = RANGE_BOUND.matcher(rs.getString(2));
+            if (!matcher.find()) {
+                return null;
+            }
+            return new Partition(rs.getString(1),
+                    Timestamp.valueOf(matcher.group(1)).toLocalDateTime(),
+                    Timestamp.valueOf(matcher.group(2)).toLocalDateTime());
+        }).stream().filter(Objects::nonNull).toList();
+    }
+
+    private record Partition(String name, LocalDateTime from, LocalDateTime to) {
+    }
+}
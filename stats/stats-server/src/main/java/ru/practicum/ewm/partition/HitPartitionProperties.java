@@ -0,0 +1,28 @@
+package ru.practicum.ewm.partition;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "stats.partitions")
+public class HitPartitionProperties {
+
+    private PartitionInterval interval = PartitionInterval.MONTH;
+
+    // Сколько будущих секций держать созданными заранее, помимо текущей
+    private int premake = 3;
+
+    // Сколько целых секций хранить до текущей; 0 — хранить всё
+    private int retention = 0;
+
+    private RetentionAction retentionAction = RetentionAction.DETACH;
+
+    public enum RetentionAction {
+        // Секция удаляется вместе с данными
+        DROP,
+        // Секция отсоединяется от hits и остаётся отдельной таблицей для архивации
+        DETACH
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.ewm.partition;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+public enum PartitionInterval {
+    DAY,
+    WEEK,
+    MONTH;
+
+    public LocalDateTime floor(LocalDateTime dateTime) {
+        LocalDateTime day = dateTime.truncatedTo(ChronoUnit.DAYS);
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDateTime plus(LocalDateTime dateTime, long intervals) {
+        return switch (this) {
+            case DAY -> dateTime.plusDays(intervals);
+            case WEEK -> dateTime.plusWeeks(intervals);
+            case MONTH -> dateTime.plusMonths(intervals);
+        };
+    }
+}
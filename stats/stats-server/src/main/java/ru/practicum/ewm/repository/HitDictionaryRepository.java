@@ -0,0 +1,107 @@
+package ru.practicum.ewm.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.entity.Hit;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Словари app и uri: в hits хранятся только их целочисленные id.
+ * Id значения после создания не меняется, поэтому найденные id запоминаются в памяти.
+ * Новые значения вставляются вне транзакции пакета hits, до неё: id в кэше не исчезает при откате пакета,
+ * а запись пакета не держит второе соединение из пула.
+ */
+@Repository
+public class HitDictionaryRepository {
+
+    // Фильтр по uri для запросов к hits: строки сравниваются по словарю, в hits — только id
+    static final String URI_ID_FILTER = " AND uri_id IN (SELECT id FROM uris WHERE uri IN (:uris))";
+
+    // Словарь uri ограничен /events/{id}, но на случай мусорных uri кэш не растёт бесконечно
+    private static final int MAX_CACHED = 100_000;
+
+    private static final Dictionary APPS = new Dictionary("apps", "app");
+
+    private static final Dictionary URIS = new Dictionary("uris", "uri");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final Map<String, Integer> appIds = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> uriIds = new ConcurrentHashMap<>();
+
+    public HitDictionaryRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Вызывать до транзакции, в которой вставляются hits
+    public HitIds getIds(Collection<Hit> hits) {
+        return new HitIds(
+                this.resolve(APPS, appIds, hits.stream().map(Hit::getApp).toList()),
+                this.resolve(URIS, uriIds, hits.stream().map(Hit::getUri).toList()));
+    }
+
+    private Map<String, Integer> resolve(Dictionary dictionary, Map<String, Integer> cache, Collection<String> values) {
+        Map<String, Integer> result = new HashMap<>();
+        // Сортировка даёт одинаковый порядок блокировок у параллельных вставок
+        TreeSet<String> missing = new TreeSet<>();
+        for (String value : values) {
+            Integer id = cache.get(value);
+            if (id != null) {
+                result.put(value, id);
+            } else {
+                missing.add(value);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        // Внутри транзакции в кэш попали бы id, которые пропадут при её откате
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Словарь " + dictionary.table() + " пополняется внутри транзакции");
+        }
+
+        if (cache.size() > MAX_CACHED) {
+            cache.clear();
+        }
+
+        // Без транзакции каждая вставка фиксируется сразу и не держит блокировку до конца пакета
+        MapSqlParameterSource[] batch = missing.stream()
+                .map(value -> new MapSqlParameterSource("value", value))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO " + dictionary.table() + " (" + dictionary.column() + ") " +
+                "VALUES (:value) ON CONFLICT (" + dictionary.column() + ") DO NOTHING", batch);
+
+        jdbcTemplate.query("SELECT id, " + dictionary.column() + " FROM " + dictionary.table() +
+                        " WHERE " + dictionary.column() + " IN (:values)",
+                new MapSqlParameterSource("values", missing),
+                rs -> {
+                    cache.put(rs.getString(2), rs.getInt(1));
+                    result.put(rs.getString(2), rs.getInt(1));
+                });
+        return result;
+    }
+
+    // Id значений словарей для пакета hits
+    public record HitIds(Map<String, Integer> appIds, Map<String, Integer> uriIds) {
+
+        public int appId(Hit hit) {
+            return appIds.get(hit.getApp());
+        }
+
+        public int uriId(Hit hit) {
+            return uriIds.get(hit.getUri());
+        }
+    }
+
+    private record Dictionary(String table, String column) {
+    }
+}
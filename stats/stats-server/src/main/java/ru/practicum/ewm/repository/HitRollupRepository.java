@@ -0,0 +1,144 @@
+package ru.practicum.ewm.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.StatsDto;
+import ru.practicum.ewm.entity.Hit;
+import ru.practicum.ewm.entity.RollupGranularity;
+import ru.practicum.ewm.repository.TimeRangeSplitter.Segment;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Предагрегированные счётчики hits по (app, uri, корзина времени) с гранулярностью минута/час/день/месяц.
+ * Запрос статистики складывает целые корзины и досчитывает по сырым hits только края диапазона,
+ * поэтому его стоимость зависит от ширины диапазона, а не от объёма накопленной истории.
+ */
+@Repository
+public class HitRollupRepository {
+
+    // Внутри транзакции драйвер PostgreSQL при fetchSize > 0 читает результат курсором, порциями
+    private static final int STREAM_FETCH_SIZE = 1_000;
+
+    private static final RowMapper<StatsDto> STATS_ROW_MAPPER = (rs, rowNum) -> new StatsDto(
+            rs.getString("app"),
+            rs.getString("uri"),
+            rs.getLong("hits"));
+
+    private static final String UPSERT_ROLLUP = "INSERT INTO hit_rollups (granularity, app, uri, bucket_start, hits) " +
+            "VALUES (:granularity, :app, :uri, :bucketStart, :hits) " +
+            "ON CONFLICT (granularity, app, uri, bucket_start) " +
+            "DO UPDATE SET hits = hit_rollups.hits + EXCLUDED.hits";
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator
+            .comparing(RollupKey::granularity)
+            .thenComparing(RollupKey::app)
+            .thenComparing(RollupKey::uri)
+            .thenComparing(RollupKey::bucketStart);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public HitRollupRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(STREAM_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    public void increment(List<Hit> hits) {
+        // Сортировка ключей даёт одинаковый порядок блокировок строк у параллельных пакетов
+        Map<RollupKey, Long> counts = new TreeMap<>(KEY_ORDER);
+        for (Hit hit : hits) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                RollupKey key = new RollupKey(granularity, hit.getApp(), hit.getUri(),
+                        granularity.floor(hit.getTimestamp()));
+                counts.merge(key, 1L, Long::sum);
+            }
+        }
+
+        MapSqlParameterSource[] batch = counts.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("granularity", entry.getKey().granularity().name())
+                        .addValue("app", entry.getKey().app())
+                        .addValue("uri", entry.getKey().uri())
+                        .addValue("bucketStart", Timestamp.valueOf(entry.getKey().bucketStart()))
+                        .addValue("hits", entry.getValue()))
+                .toArray(MapSqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP, batch);
+    }
+
+    public List<StatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = this.statsQuery(start, end, uris, params);
+
+        return jdbcTemplate.query(sql, params, STATS_ROW_MAPPER);
+    }
+
+    // Вызывать внутри транзакции, иначе драйвер прочитает весь результат в память
+    public void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, Consumer<StatsDto> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = this.statsQuery(start, end, uris, params);
+
+        RowCallbackHandler handler = rs -> consumer.accept(STATS_ROW_MAPPER.mapRow(rs, rs.getRow()));
+        streamingJdbcTemplate.query(sql, params, handler);
+    }
+
+    // Пакетная видимость: планы запросов проверяет StatsQueryPlanTest
+    String statsQuery(LocalDateTime start, LocalDateTime end, List<String> uris,
+                      MapSqlParameterSource params) {
+        // Границы BETWEEN включительные; timestamp в PostgreSQL хранится с точностью до микросекунды
+        List<Segment> segments = TimeRangeSplitter.split(start, end.plus(1, ChronoUnit.MICROS),
+                RollupGranularity.MINUTE);
+
+        String uriFilter = "";
+        String hitsUriFilter = "";
+        if (uris != null && !uris.isEmpty()) {
+            params.addValue("uris", uris);
+            uriFilter = " AND uri IN (:uris)";
+            hitsUriFilter = HitDictionaryRepository.URI_ID_FILTER;
+        }
+
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            params.addValue("from" + i, Timestamp.valueOf(segment.from()));
+            params.addValue("to" + i, Timestamp.valueOf(segment.to()));
+
+            if (segment.granularity() == null) {
+                parts.add("SELECT a.app, u.uri, h.hits FROM (" +
+                        "SELECT app_id, uri_id, COUNT(*) AS hits FROM hits " +
+                        "WHERE timestamp >= :from" + i + " AND timestamp < :to" + i + hitsUriFilter +
+                        " GROUP BY app_id, uri_id) h " +
+                        "JOIN apps a ON a.id = h.app_id JOIN uris u ON u.id = h.uri_id");
+            } else {
+                params.addValue("granularity" + i, segment.granularity().name());
+                parts.add("SELECT app, uri, hits FROM hit_rollups " +
+                        "WHERE granularity = :granularity" + i +
+                        " AND bucket_start >= :from" + i + " AND bucket_start < :to" + i + uriFilter);
+            }
+        }
+
+        return "SELECT app, uri, SUM(hits) AS hits FROM (" + String.join(" UNION ALL ", parts) + ") s " +
+                "GROUP BY app, uri " +
+                "ORDER BY hits DESC";
+    }
+
+    private record RollupKey(RollupGranularity granularity, String app, String uri, LocalDateTime bucketStart) {
+    }
+}
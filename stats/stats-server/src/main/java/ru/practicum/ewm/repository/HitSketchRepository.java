@@ -0,0 +1,168 @@
+package ru.practicum.ewm.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.StatsDto;
+import ru.practicum.ewm.entity.Hit;
+import ru.practicum.ewm.entity.RollupGranularity;
+import ru.practicum.ewm.repository.TimeRangeSplitter.Segment;
+import ru.practicum.ewm.sketch.HyperLogLog;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * HyperLogLog-скетчи уникальных ip по (app, uri, корзина времени) с гранулярностью час/день/месяц.
+ * Приближённая статистика объединяет скетчи целых корзин и добавляет к ним ip с краёв диапазона
+ * из сырой таблицы hits, поэтому COUNT(DISTINCT ip) по всей истории не нужен.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HitSketchRepository {
+
+    private static final List<RollupGranularity> GRANULARITIES = List.of(RollupGranularity.HOUR,
+            RollupGranularity.DAY, RollupGranularity.MONTH);
+
+    // Параметров в одном SELECT ... FOR UPDATE: 4 на ключ при лимите протокола PostgreSQL 32767
+    private static final int LOCK_CHUNK = 5_000;
+
+    private static final String INSERT_SKETCH = "INSERT INTO hit_sketches (granularity, app, uri, bucket_start, registers) " +
+            "VALUES (:granularity, :app, :uri, :bucketStart, :registers) " +
+            "ON CONFLICT (granularity, app, uri, bucket_start) DO NOTHING";
+
+    // Порядок строк совпадает с KEY_ORDER, поэтому блокировки берутся в том же порядке, что и при вставке
+    private static final String LOCK_SKETCHES = "SELECT granularity, app, uri, bucket_start, registers " +
+            "FROM hit_sketches WHERE (granularity, app, uri, bucket_start) IN (:keys) " +
+            "ORDER BY granularity COLLATE \"C\", app COLLATE \"C\", uri COLLATE \"C\", bucket_start " +
+            "FOR UPDATE";
+
+    private static final String UPDATE_SKETCH = "UPDATE hit_sketches SET registers = :registers " +
+            "WHERE granularity = :granularity AND app = :app AND uri = :uri AND bucket_start = :bucketStart";
+
+    // Имя гранулярности, а не порядковый номер: так же сортирует LOCK_SKETCHES
+    private static final Comparator<SketchKey> KEY_ORDER = Comparator
+            .comparing((SketchKey key) -> key.granularity().name())
+            .thenComparing(SketchKey::app)
+            .thenComparing(SketchKey::uri)
+            .thenComparing(SketchKey::bucketStart);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Вызывать внутри транзакции: строки существующих корзин блокируются до её конца.
+     * Пакет сначала сворачивается в один скетч на ключ; новые ключи вставляются сразу,
+     * а регистры существующих объединяются здесь, чтобы слияние не нагружало процессор БД.
+     */
+    public void add(List<Hit> hits) {
+        // Сортировка ключей даёт одинаковый порядок блокировок строк у параллельных пакетов
+        Map<SketchKey, HyperLogLog> sketches = new TreeMap<>(KEY_ORDER);
+        for (Hit hit : hits) {
+            for (RollupGranularity granularity : GRANULARITIES) {
+                SketchKey key = new SketchKey(granularity, hit.getApp(), hit.getUri(),
+                        granularity.floor(hit.getTimestamp()));
+                HyperLogLog sketch = sketches.computeIfAbsent(key, k -> new HyperLogLog());
+                if (hit.getIp() != null) {
+                    sketch.add(hit.getIp());
+                }
+            }
+        }
+
+        List<SketchKey> keys = new ArrayList<>(sketches.keySet());
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_SKETCH, keys.stream()
+                .map(key -> params(key, sketches.get(key)))
+                .toArray(MapSqlParameterSource[]::new));
+
+        List<SketchKey> existing = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (inserted[i] == 0) {
+                existing.add(keys.get(i));
+            }
+        }
+
+        for (int from = 0; from < existing.size(); from += LOCK_CHUNK) {
+            List<Object[]> chunk = existing.subList(from, Math.min(from + LOCK_CHUNK, existing.size())).stream()
+                    .map(key -> new Object[]{key.granularity().name(), key.app(), key.uri(),
+                            Timestamp.valueOf(key.bucketStart())})
+                    .toList();
+
+            List<MapSqlParameterSource> updates = new ArrayList<>();
+            jdbcTemplate.query(LOCK_SKETCHES, new MapSqlParameterSource("keys", chunk), rs -> {
+                SketchKey key = new SketchKey(RollupGranularity.valueOf(rs.getString("granularity")),
+                        rs.getString("app"), rs.getString("uri"), rs.getTimestamp("bucket_start").toLocalDateTime());
+                HyperLogLog sketch = sketches.get(key);
+                sketch.merge(HyperLogLog.fromBytes(rs.getBytes("registers")));
+                updates.add(params(key, sketch));
+            });
+            jdbcTemplate.batchUpdate(UPDATE_SKETCH, updates.toArray(MapSqlParameterSource[]::new));
+        }
+    }
+
+    public List<StatsDto> getUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        // Границы BETWEEN включительные; timestamp в PostgreSQL хранится с точностью до микросекунды
+        List<Segment> segments = TimeRangeSplitter.split(start, end.plus(1, ChronoUnit.MICROS),
+                RollupGranularity.HOUR);
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String uriFilter = "";
+        String hitsUriFilter = "";
+        if (uris != null && !uris.isEmpty()) {
+            params.addValue("uris", uris);
+            uriFilter = " AND uri IN (:uris)";
+            hitsUriFilter = HitDictionaryRepository.URI_ID_FILTER;
+        }
+
+        Map<AppUri, HyperLogLog> merged = new HashMap<>();
+        for (Segment segment : segments) {
+            params.addValue("from", Timestamp.valueOf(segment.from()));
+            params.addValue("to", Timestamp.valueOf(segment.to()));
+
+            if (segment.granularity() == null) {
+                String sql = "SELECT a.app, u.uri, host(h.ip) AS ip FROM (" +
+                        "SELECT DISTINCT app_id, uri_id, ip FROM hits " +
+                        "WHERE timestamp >= :from AND timestamp < :to AND ip IS NOT NULL" + hitsUriFilter + ") h " +
+                        "JOIN apps a ON a.id = h.app_id JOIN uris u ON u.id = h.uri_id";
+                jdbcTemplate.query(sql, params, rs -> {
+                    merged.computeIfAbsent(new AppUri(rs.getString("app"), rs.getString("uri")),
+                            k -> new HyperLogLog()).add(rs.getString("ip"));
+                });
+            } else {
+                params.addValue("granularity", segment.granularity().name());
+                String sql = "SELECT app, uri, registers FROM hit_sketches " +
+                        "WHERE granularity = :granularity AND bucket_start >= :from AND bucket_start < :to" + uriFilter;
+                jdbcTemplate.query(sql, params, rs -> {
+                    merged.computeIfAbsent(new AppUri(rs.getString("app"), rs.getString("uri")),
+                            k -> new HyperLogLog()).merge(HyperLogLog.fromBytes(rs.getBytes("registers")));
+                });
+            }
+        }
+
+        return merged.entrySet().stream()
+                .map(entry -> new StatsDto(entry.getKey().app(), entry.getKey().uri(), entry.getValue().estimate()))
+                .sorted(Comparator.comparingLong(StatsDto::getHits).reversed())
+                .toList();
+    }
+
+    private static MapSqlParameterSource params(SketchKey key, HyperLogLog sketch) {
+        return new MapSqlParameterSource()
+                .addValue("granularity", key.granularity().name())
+                .addValue("app", key.app())
+                .addValue("uri", key.uri())
+                .addValue("bucketStart", Timestamp.valueOf(key.bucketStart()))
+                .addValue("registers", sketch.toBytes());
+    }
+
+    private record SketchKey(RollupGranularity granularity, String app, String uri, LocalDateTime bucketStart) {
+    }
+
+    private record AppUri(String app, String uri) {
+    }
+}
@@ -1,30 +1,100 @@
 package ru.practicum.ewm.repository;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewm.StatsDto;
 import ru.practicum.ewm.entity.Hit;
 
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Сырые hits. app и uri хранятся как id из словарей, ip — как inet;
+ * группировка идёт по целым id, строки подставляются только в готовый результат.
+ */
 @Repository
-public interface StatsRepository extends JpaRepository<Hit, Long> {
-
-    @Query("SELECT new ru.practicum.ewm.StatsDto(h.app, h.uri, COUNT(h.ip)) " +
-            "FROM Hit h " +
-            "WHERE h.timestamp BETWEEN :start AND :end " +
-            "AND (:uris IS NULL OR h.uri IN :uris) " +
-            "GROUP BY h.app, h.uri " +
-            "ORDER BY COUNT(h.ip) DESC")
-    List<StatsDto> getAllStats(LocalDateTime start, LocalDateTime end, List<String> uris);
-
-    @Query("SELECT new ru.practicum.ewm.StatsDto(h.app, h.uri, COUNT(DISTINCT h.ip)) " +
-            "FROM Hit h " +
-            "WHERE h.timestamp BETWEEN :start AND :end " +
-            "AND (:uris IS NULL OR h.uri IN :uris) " +
-            "GROUP BY h.app, h.uri " +
-            "ORDER BY COUNT(DISTINCT h.ip) DESC")
-    List<StatsDto> findStatsWithUniqueIp(LocalDateTime start, LocalDateTime end, List<String> uris);
-}
\ No newline at end of file
+public class StatsRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    // Внутри транзакции драйвер PostgreSQL при fetchSize > 0 читает результат курсором, порциями
+    private static final int STREAM_FETCH_SIZE = 1_000;
+
+    private static final String INSERT_HIT = "INSERT INTO hits (id, app_id, uri_id, ip, timestamp) " +
+            "VALUES (nextval('hits_seq'), ?, ?, CAST(? AS inet), ?)";
+
+    private static final RowMapper<StatsDto> STATS_ROW_MAPPER = (rs, rowNum) -> new StatsDto(
+            rs.getString("app"),
+            rs.getString("uri"),
+            rs.getLong("hits"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public StatsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(STREAM_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    public void saveBatch(List<Hit> hits, HitDictionaryRepository.HitIds ids) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_HIT, hits, BATCH_SIZE, (ps, hit) -> {
+            ps.setInt(1, ids.appId(hit));
+            ps.setInt(2, ids.uriId(hit));
+            if (hit.getIp() != null) {
+                ps.setString(3, hit.getIp());
+            } else {
+                ps.setNull(3, Types.VARCHAR);
+            }
+            ps.setTimestamp(4, Timestamp.valueOf(hit.getTimestamp()));
+        });
+    }
+
+    public List<StatsDto> findStatsWithUniqueIp(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = this.uniqueStatsQuery(start, end, uris, params);
+
+        return jdbcTemplate.query(sql, params, STATS_ROW_MAPPER);
+    }
+
+    // Вызывать внутри транзакции, иначе драйвер прочитает весь результат в память
+    public void streamStatsWithUniqueIp(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                        Consumer<StatsDto> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = this.uniqueStatsQuery(start, end, uris, params);
+
+        RowCallbackHandler handler = rs -> consumer.accept(STATS_ROW_MAPPER.mapRow(rs, rs.getRow()));
+        streamingJdbcTemplate.query(sql, params, handler);
+    }
+
+    // Пакетная видимость: планы запросов проверяет StatsQueryPlanTest
+    String uniqueStatsQuery(LocalDateTime start, LocalDateTime end, List<String> uris,
+                            MapSqlParameterSource params) {
+        params.addValue("start", Timestamp.valueOf(start));
+        params.addValue("end", Timestamp.valueOf(end));
+
+        String uriFilter = "";
+        if (uris != null && !uris.isEmpty()) {
+            params.addValue("uris", uris);
+            uriFilter = HitDictionaryRepository.URI_ID_FILTER;
+        }
+
+        return "SELECT a.app, u.uri, s.hits FROM (" +
+                "SELECT app_id, uri_id, COUNT(DISTINCT ip) AS hits FROM hits " +
+                "WHERE timestamp BETWEEN :start AND :end" + uriFilter +
+                " GROUP BY app_id, uri_id) s " +
+                "JOIN apps a ON a.id = s.app_id " +
+                "JOIN uris u ON u.id = s.uri_id " +
+                "ORDER BY s.hits DESC";
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.ewm.repository;
+
+import ru.practicum.ewm.entity.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбивает полуинтервал [from, to) на отрезки из целых корзин (от MONTH до finest) и края,
+ * которые не покрываются ни одной целой корзиной и считаются по сырой таблице hits.
+ */
+final class TimeRangeSplitter {
+
+    private TimeRangeSplitter() {
+    }
+
+    static List<Segment> split(LocalDateTime from, LocalDateTime to, RollupGranularity finest) {
+        List<Segment> segments = new ArrayList<>();
+        split(from, to, RollupGranularity.MONTH, finest, segments);
+        return segments;
+    }
+
+    private static void split(LocalDateTime from, LocalDateTime to, RollupGranularity granularity,
+                              RollupGranularity finest, List<Segment> segments) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        if (granularity == null) {
+            segments.add(new Segment(null, from, to));
+            return;
+        }
+
+        RollupGranularity finer = granularity == finest ? null : granularity.finer();
+        LocalDateTime firstBucket = granularity.ceil(from);
+        LocalDateTime lastBucket = granularity.floor(to);
+
+        if (firstBucket.isBefore(lastBucket)) {
+            split(from, firstBucket, finer, finest, segments);
+            segments.add(new Segment(granularity, firstBucket, lastBucket));
+            split(lastBucket, to, finer, finest, segments);
+        } else {
+            split(from, to, finer, finest, segments);
+        }
+    }
+
+    // granularity == null — отрезок считается по сырой таблице hits
+    record Segment(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+    }
+}
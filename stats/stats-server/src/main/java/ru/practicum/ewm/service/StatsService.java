@@ -5,10 +5,18 @@ import ru.practicum.ewm.ReqStatsParams;
 import ru.practicum.ewm.StatsDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface StatsService {
 
     StatsDto hit(NewHitDto hitDto);
 
+    void hits(List<NewHitDto> hitDtos);
+
     List<StatsDto> getStats(ReqStatsParams statsDto);
+
+    // Проверка параметров до начала ответа: streamStats вызывается, когда статус 200 уже отправлен
+    void checkParams(ReqStatsParams params);
+
+    void streamStats(ReqStatsParams params, Consumer<StatsDto> consumer);
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package ru.practicum.ewm.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 import ru.practicum.ewm.NewHitDto;
 import ru.practicum.ewm.ReqStatsParams;
@@ -10,9 +12,13 @@ import ru.practicum.ewm.StatsDto;
 import ru.practicum.ewm.entity.Hit;
 import ru.practicum.ewm.exception.BadRequestException;
 import ru.practicum.ewm.mapper.HitMapper;
+import ru.practicum.ewm.repository.HitDictionaryRepository;
+import ru.practicum.ewm.repository.HitRollupRepository;
+import ru.practicum.ewm.repository.HitSketchRepository;
 import ru.practicum.ewm.repository.StatsRepository;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -22,29 +28,83 @@ public class StatsServiceImpl implements StatsService {
 
     private final StatsRepository statsRepository;
 
+    private final HitRollupRepository hitRollupRepository;
+
+    private final HitSketchRepository hitSketchRepository;
+
+    private final HitDictionaryRepository hitDictionaryRepository;
+
     private final HitMapper hitMapper;
 
+    private final TransactionTemplate transactionTemplate;
+
     @Override
     public StatsDto hit(NewHitDto hitDto) {
 
         Hit hit = hitMapper.toEntity(hitDto);
-        hit = statsRepository.save(hit);
+        this.save(List.of(hit));
 
         log.debug("Сохранен хит  {}", hit);
 
         return hitMapper.toStatsDto(hit);
     }
 
+    @Override
+    public void hits(List<NewHitDto> hitDtos) {
+        List<Hit> hits = hitMapper.toEntities(hitDtos);
+        this.save(hits);
+
+        log.debug("Сохранено хитов: {}", hitDtos.size());
+    }
+
     @Override
     public List<StatsDto> getStats(ReqStatsParams params) {
         log.debug("Метод getStats(); params={}", params);
 
+        this.checkParams(params);
+
+        if (!params.isUnique()) {
+            return hitRollupRepository.getStats(params.getStart(), params.getEnd(), params.getUris());
+        }
+
+        return params.isApproximate()
+                ? hitSketchRepository.getUniqueStats(params.getStart(), params.getEnd(), params.getUris())
+                : statsRepository.findStatsWithUniqueIp(params.getStart(), params.getEnd(), params.getUris());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamStats(ReqStatsParams params, Consumer<StatsDto> consumer) {
+        log.debug("Метод streamStats(); params={}", params);
+
+        this.checkParams(params);
+
+        if (!params.isUnique()) {
+            hitRollupRepository.streamStats(params.getStart(), params.getEnd(), params.getUris(), consumer);
+        } else if (params.isApproximate()) {
+            // Скетчи объединяются в памяти по (app, uri), построчно здесь отдаётся уже готовый результат
+            hitSketchRepository.getUniqueStats(params.getStart(), params.getEnd(), params.getUris())
+                    .forEach(consumer);
+        } else {
+            statsRepository.streamStatsWithUniqueIp(params.getStart(), params.getEnd(), params.getUris(), consumer);
+        }
+    }
+
+    @Override
+    public void checkParams(ReqStatsParams params) {
         if (!params.getEnd().isAfter(params.getStart())) {
             throw new BadRequestException("Дата конца не может быть раньше начала");
         }
+    }
+
+    // Словари пополняются до транзакции пакета: она держит одно соединение из пула
+    private void save(List<Hit> hits) {
+        HitDictionaryRepository.HitIds ids = hitDictionaryRepository.getIds(hits);
 
-        return params.isUnique()
-                ? statsRepository.findStatsWithUniqueIp(params.getStart(), params.getEnd(), params.getUris())
-                : statsRepository.getAllStats(params.getStart(), params.getEnd(), params.getUris());
+        transactionTemplate.executeWithoutResult(status -> {
+            statsRepository.saveBatch(hits, ids);
+            hitRollupRepository.increment(hits);
+            hitSketchRepository.add(hits);
+        });
     }
-}
\ No newline at end of file
+}
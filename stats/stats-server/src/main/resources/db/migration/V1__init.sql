@@ -0,0 +1,50 @@
+-- Исходная схема stats-server. Таблица hits секционирована по timestamp, секции создаёт и удаляет HitPartitionManager
+
+-- Словари app и uri: в hits хранятся только их id
+CREATE TABLE IF NOT EXISTS apps (
+    id  SERIAL       PRIMARY KEY,
+    app VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS uris (
+    id  SERIAL       PRIMARY KEY,
+    uri VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE SEQUENCE IF NOT EXISTS hits_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS hits (
+    id        BIGINT       NOT NULL,
+    app_id    INTEGER      NOT NULL REFERENCES apps (id),
+    uri_id    INTEGER      NOT NULL REFERENCES uris (id),
+    ip        INET,
+    timestamp TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Сюда попадают hits вне созданных секций, например с датами из далёкого прошлого
+CREATE TABLE IF NOT EXISTS hits_default PARTITION OF hits DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_hits_timestamp ON hits (timestamp);
+
+CREATE TABLE IF NOT EXISTS hit_rollups (
+    granularity  VARCHAR(10)  NOT NULL,
+    app          VARCHAR(255) NOT NULL,
+    uri          VARCHAR(255) NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    hits         BIGINT       NOT NULL,
+    PRIMARY KEY (granularity, app, uri, bucket_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_hit_rollups_range ON hit_rollups (granularity, uri, bucket_start);
+
+CREATE TABLE IF NOT EXISTS hit_sketches (
+    granularity  VARCHAR(10)  NOT NULL,
+    app          VARCHAR(255) NOT NULL,
+    uri          VARCHAR(255) NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    registers    BYTEA        NOT NULL,
+    PRIMARY KEY (granularity, app, uri, bucket_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_hit_sketches_range ON hit_sketches (granularity, uri, bucket_start);
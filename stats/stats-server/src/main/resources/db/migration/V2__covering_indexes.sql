@@ -0,0 +1,16 @@
+-- Индексы под запросы статистики: диапазон timestamp, необязательный фильтр uri_id IN (...),
+-- группировка по (app_id, uri_id) и COUNT(DISTINCT ip). Все нужные столбцы есть в индексе,
+-- поэтому hits читается index-only scan без обращения к таблице
+
+DROP INDEX IF EXISTS idx_hits_timestamp;
+
+-- Запросы без uris: весь диапазон времени
+CREATE INDEX IF NOT EXISTS idx_hits_timestamp_covering ON hits (timestamp) INCLUDE (app_id, uri_id, ip);
+
+-- Запросы с uris: для каждого uri_id отдельный отрезок по времени
+CREATE INDEX IF NOT EXISTS idx_hits_uri_timestamp_covering ON hits (uri_id, timestamp) INCLUDE (app_id, ip);
+
+-- Корзины без фильтра по uri выбираются по (granularity, bucket_start)
+CREATE INDEX IF NOT EXISTS idx_hit_rollups_bucket ON hit_rollups (granularity, bucket_start) INCLUDE (app, uri, hits);
+
+CREATE INDEX IF NOT EXISTS idx_hit_sketches_bucket ON hit_sketches (granularity, bucket_start);
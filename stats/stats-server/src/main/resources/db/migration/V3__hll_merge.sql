@@ -0,0 +1,58 @@
+-- Объединение HyperLogLog-скетчей на стороне БД: пакет hits пишет скетч ключа одним
+-- INSERT ... ON CONFLICT DO UPDATE, без SELECT ... FOR UPDATE и повторного чтения строки.
+-- Формат совпадает с HyperLogLog.toBytes(): первый байт 0 — 4096 регистров подряд,
+-- 1 — тройки (старший байт индекса, младший байт индекса, ранг)
+
+CREATE OR REPLACE FUNCTION hll_merge(a BYTEA, b BYTEA) RETURNS BYTEA
+    LANGUAGE plpgsql IMMUTABLE STRICT PARALLEL SAFE AS
+$$
+DECLARE
+    registers INTEGER[] := array_fill(0, ARRAY[4096]);
+    source    BYTEA;
+    idx       INTEGER;
+    rank      INTEGER;
+    nonzero   INTEGER;
+    result    BYTEA;
+    i         INTEGER;
+BEGIN
+    FOREACH source IN ARRAY ARRAY[a, b] LOOP
+        IF get_byte(source, 0) = 0 THEN
+            FOR i IN 1..4096 LOOP
+                rank := get_byte(source, i);
+                IF rank > registers[i] THEN
+                    registers[i] := rank;
+                END IF;
+            END LOOP;
+        ELSE
+            i := 1;
+            WHILE i + 2 < length(source) LOOP
+                idx := get_byte(source, i) * 256 + get_byte(source, i + 1) + 1;
+                rank := get_byte(source, i + 2);
+                IF rank > registers[idx] THEN
+                    registers[idx] := rank;
+                END IF;
+                i := i + 3;
+            END LOOP;
+        END IF;
+    END LOOP;
+
+    SELECT count(*) INTO nonzero FROM unnest(registers) AS r WHERE r <> 0;
+
+    IF nonzero * 3 >= 4096 THEN
+        SELECT decode('00' || string_agg(lpad(to_hex(r), 2, '0'), '' ORDER BY n), 'hex')
+        INTO result
+        FROM unnest(registers) WITH ORDINALITY AS t(r, n);
+    ELSE
+        SELECT decode('01' || COALESCE(string_agg(lpad(to_hex(n - 1), 4, '0') || lpad(to_hex(r), 2, '0'), ''
+                                                  ORDER BY n), ''), 'hex')
+        INTO result
+        FROM unnest(registers) WITH ORDINALITY AS t(r, n)
+        WHERE r <> 0;
+    END IF;
+
+    RETURN result;
+END;
+$$;
+
+-- Строка скетча перезаписывается при каждом пакете: запас места на странице позволяет HOT-обновления
+ALTER TABLE hit_sketches SET (fillfactor = 70);
@@ -0,0 +1,23 @@
+-- Месячные корзины: приближённая статистика за длинный диапазон читает по скетчу на месяц, а не на день.
+-- Существующие дневные корзины сворачиваются в месячные однократно, последний раз через hll_merge;
+-- дальше регистры объединяет HitSketchRepository на стороне приложения
+
+INSERT INTO hit_rollups (granularity, app, uri, bucket_start, hits)
+SELECT 'MONTH', app, uri, date_trunc('month', bucket_start), SUM(hits)
+FROM hit_rollups
+WHERE granularity = 'DAY'
+GROUP BY app, uri, date_trunc('month', bucket_start)
+ON CONFLICT (granularity, app, uri, bucket_start) DO UPDATE SET hits = EXCLUDED.hits;
+
+CREATE AGGREGATE hll_union(BYTEA) (SFUNC = hll_merge, STYPE = BYTEA);
+
+INSERT INTO hit_sketches (granularity, app, uri, bucket_start, registers)
+SELECT 'MONTH', app, uri, date_trunc('month', bucket_start), hll_union(registers)
+FROM hit_sketches
+WHERE granularity = 'DAY'
+GROUP BY app, uri, date_trunc('month', bucket_start)
+ON CONFLICT (granularity, app, uri, bucket_start) DO UPDATE SET registers = EXCLUDED.registers;
+
+DROP AGGREGATE hll_union(BYTEA);
+
+DROP FUNCTION hll_merge(BYTEA, BYTEA);
@@ -0,0 +1,75 @@
+package ru.practicum.ewm.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.ewm.ReqStatsParams;
+import ru.practicum.ewm.StatsDto;
+import ru.practicum.ewm.exception.BadRequestException;
+import ru.practicum.ewm.service.StatsService;
+
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(value = StatsController.class, properties = {
+        // Без application.yaml: его spring.config.import требует config-server
+        "spring.config.name=stats-controller-test",
+        "spring.cloud.config.enabled=false"
+})
+class StatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StatsService statsService;
+
+    @Test
+    void exportWithInvalidRangeIsBadRequestBeforeStreaming() throws Exception {
+        doThrow(new BadRequestException("Дата конца не может быть раньше начала"))
+                .when(statsService).checkParams(any(ReqStatsParams.class));
+
+        mockMvc.perform(get("/stats/export")
+                        .param("start", "2024-03-02 00:00:00")
+                        .param("end", "2024-03-01 00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verify(statsService, never()).streamStats(any(), any());
+    }
+
+    @Test
+    void exportStreamsRowsAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<StatsDto> consumer = invocation.getArgument(1);
+            consumer.accept(new StatsDto("ewm-main-service", "/events/1", 3L));
+            consumer.accept(new StatsDto("ewm-main-service", "/events/2", 1L));
+            return null;
+        }).when(statsService).streamStats(any(ReqStatsParams.class), any());
+
+        MvcResult result = mockMvc.perform(get("/stats/export")
+                        .param("start", "2024-03-01 00:00:00")
+                        .param("end", "2024-03-02 00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"app\":\"ewm-main-service\",\"uri\":\"/events/1\",\"hits\":3}\n"
+                                + "{\"app\":\"ewm-main-service\",\"uri\":\"/events/2\",\"hits\":1}\n"));
+    }
+}
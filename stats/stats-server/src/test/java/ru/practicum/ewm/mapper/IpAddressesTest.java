@@ -0,0 +1,55 @@
+package ru.practicum.ewm.mapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IpAddressesTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "192.168.0.1, 192.168.0.1",
+            "' 10.0.0.7 ', 10.0.0.7",
+            "010.001.000.009, 10.1.0.9",
+            "0.0.0.0, 0.0.0.0",
+            "255.255.255.255, 255.255.255.255"
+    })
+    void ipv4IsWrittenLikeHost(String ip, String expected) {
+        assertThat(IpAddresses.normalize(ip)).isEqualTo(expected);
+    }
+
+    // Ожидаемые значения — вывод host(CAST(ip AS inet)) в PostgreSQL
+    @ParameterizedTest
+    @CsvSource({
+            "2001:0DB8:0000:0000:0000:0000:0000:0001, 2001:db8::1",
+            "::1, ::1",
+            "::, ::",
+            "fe80::, fe80::",
+            "2001:db8:0:1:0:0:0:1, 2001:db8:0:1::1",
+            "2001:0:0:1:0:0:0:1, 2001:0:0:1::1",
+            "2001:db8:1:1:1:1:0:1, 2001:db8:1:1:1:1:0:1",
+            "::ffff:10.0.0.1, ::ffff:10.0.0.1",
+            "::FFFF:0a00:0001, ::ffff:10.0.0.1",
+            "::10.0.0.1, ::10.0.0.1",
+            "::1:2, ::0.1.0.2",
+            "::0.0.1.1, ::101"
+    })
+    void ipv6IsWrittenLikeHost(String ip, String expected) {
+        assertThat(IpAddresses.normalize(ip)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "localhost", "256.0.0.1", "1.2.3", "1.2.3.4.5", "2001:db8::g", "1::2::3",
+            "example.com:8080"})
+    void notAnIpIsNull(String ip) {
+        assertThat(IpAddresses.normalize(ip)).isNull();
+    }
+
+    @Test
+    void nullIsNull() {
+        assertThat(IpAddresses.normalize(null)).isNull();
+    }
+}
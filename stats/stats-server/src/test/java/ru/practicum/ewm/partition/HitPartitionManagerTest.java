@@ -0,0 +1,164 @@
+package ru.practicum.ewm.partition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Обслуживание секций на схеме из миграций Flyway. Тест выполняется в откатываемой транзакции,
+ * TransactionTemplate менеджера присоединяется к ней.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@JdbcTest(properties = {
+        // Без application.yaml: его spring.config.import требует config-server
+        "spring.config.name=hit-partition-manager-test",
+        "spring.cloud.config.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class HitPartitionManagerTest {
+
+    private static final DateTimeFormatter NAME_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final LocalDateTime EXPIRED = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final HitPartitionProperties properties = new HitPartitionProperties();
+
+    private final LocalDateTime currentMonth = PartitionInterval.MONTH.floor(LocalDateTime.now());
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO apps (app) VALUES ('ewm-main-service')");
+        jdbcTemplate.update("INSERT INTO uris (uri) VALUES ('/events/1')");
+        properties.setInterval(PartitionInterval.MONTH);
+        properties.setPremake(2);
+    }
+
+    @Test
+    void currentAndFuturePartitionsAreCreated() {
+        this.manager().maintain();
+
+        assertThat(this.partitions()).containsExactlyInAnyOrder(
+                partitionName(currentMonth),
+                partitionName(currentMonth.plusMonths(1)),
+                partitionName(currentMonth.plusMonths(2)));
+
+        // Повторный запуск ничего не меняет
+        this.manager().maintain();
+        assertThat(this.partitions()).hasSize(3);
+    }
+
+    @Test
+    void rowsOfNewPartitionAreMovedFromDefault() {
+        this.insertHit(currentMonth.plusDays(1));
+        this.insertHit(currentMonth.plusMonths(1).plusHours(3));
+        assertThat(this.count("hits_default")).isEqualTo(2);
+
+        this.manager().maintain();
+
+        assertThat(this.count("hits_default")).isZero();
+        assertThat(this.count(partitionName(currentMonth))).isEqualTo(1);
+        assertThat(this.count(partitionName(currentMonth.plusMonths(1)))).isEqualTo(1);
+        assertThat(this.count("hits")).isEqualTo(2);
+    }
+
+    @Test
+    void expiredPartitionIsDropped() {
+        String expired = this.createExpiredPartition();
+        properties.setRetention(1);
+        properties.setRetentionAction(HitPartitionProperties.RetentionAction.DROP);
+
+        this.manager().maintain();
+
+        assertThat(this.partitions()).doesNotContain(expired);
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, expired)).isTrue();
+    }
+
+    @Test
+    void expiredPartitionIsDetachedWithData() {
+        String expired = this.createExpiredPartition();
+        properties.setRetention(1);
+        properties.setRetentionAction(HitPartitionProperties.RetentionAction.DETACH);
+
+        this.manager().maintain();
+
+        assertThat(this.partitions()).doesNotContain(expired);
+        assertThat(this.count(expired)).isEqualTo(1);
+        assertThat(this.count("hits")).isZero();
+    }
+
+    @Test
+    void expiredRowsOfDefaultPartitionAreDeleted() {
+        // Старше любой секции: остаются в секции по умолчанию
+        this.insertHit(EXPIRED.minusYears(1));
+        this.insertHit(EXPIRED.minusYears(1).plusDays(1));
+        this.insertHit(LocalDateTime.of(1999, 12, 31, 23, 59));
+        properties.setRetention(1);
+
+        this.manager().maintain();
+
+        assertThat(this.count("hits_default")).isZero();
+
+        // Без retention секция по умолчанию не чистится
+        this.insertHit(EXPIRED);
+        properties.setRetention(0);
+        this.manager().maintain();
+        assertThat(this.count("hits_default")).isEqualTo(1);
+    }
+
+    private HitPartitionManager manager() {
+        return new HitPartitionManager(jdbcTemplate, transactionTemplate, properties);
+    }
+
+    private String createExpiredPartition() {
+        String name = partitionName(EXPIRED);
+        jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF hits " +
+                "FOR VALUES FROM ('2020-01-01 00:00:00') TO ('2020-02-01 00:00:00')");
+        this.insertHit(EXPIRED.plusDays(10));
+        assertThat(this.count(name)).isEqualTo(1);
+        return name;
+    }
+
+    private void insertHit(LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO hits (id, app_id, uri_id, ip, timestamp) " +
+                        "SELECT nextval('hits_seq'), a.id, u.id, '10.0.0.1'::inet, ? FROM apps a, uris u",
+                Timestamp.valueOf(timestamp));
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'hits'::regclass AND c.relname <> 'hits_default'", String.class);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+    }
+
+    private static String partitionName(LocalDateTime from) {
+        return "hits_p" + from.format(NAME_SUFFIX);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.ewm.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.ewm.StatsDto;
+import ru.practicum.ewm.entity.Hit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Testcontainers(disabledWithoutDocker = true)
+@JdbcTest(properties = {
+        // Без application.yaml: его spring.config.import требует config-server
+        "spring.config.name=hit-sketch-repository-test",
+        "spring.cloud.config.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(HitSketchRepository.class)
+class HitSketchRepositoryTest {
+
+    private static final String APP = "ewm-main-service";
+    private static final String URI = "/events/1";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private HitSketchRepository hitSketchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchesForExistingBucketsAreMerged() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 3, 10, 10, 15);
+
+        hitSketchRepository.add(hits(0, 2_000, timestamp));
+        hitSketchRepository.add(hits(1_000, 3_000, timestamp.plusMinutes(5)));
+
+        assertThat(jdbcTemplate.queryForList("SELECT granularity FROM hit_sketches ORDER BY granularity",
+                String.class)).containsExactly("DAY", "HOUR", "MONTH");
+
+        List<StatsDto> stats = hitSketchRepository.getUniqueStats(LocalDateTime.of(2024, 3, 10, 10, 0),
+                LocalDateTime.of(2024, 3, 10, 10, 59, 59, 999_999_000), List.of(URI));
+        assertThat(stats).singleElement().satisfies(dto ->
+                assertThat(dto.getHits()).isCloseTo(3_000L, within(100L)));
+    }
+
+    @Test
+    void longRangeIsReadFromMonthSketches() {
+        List<Hit> hits = new ArrayList<>();
+        for (int month = 1; month <= 4; month++) {
+            // Часть ip повторяется из месяца в месяц
+            hits.addAll(hits(month * 500, month * 500 + 1_000, LocalDateTime.of(2024, month, 15, 12, 0)));
+        }
+        hitSketchRepository.add(hits);
+
+        List<StatsDto> stats = hitSketchRepository.getUniqueStats(LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 4, 30, 23, 59, 59, 999_999_000), null);
+
+        assertThat(stats).singleElement().satisfies(dto ->
+                assertThat(dto.getHits()).isCloseTo(2_500L, within(100L)));
+    }
+
+    private static List<Hit> hits(int fromIp, int toIp, LocalDateTime timestamp) {
+        List<Hit> hits = new ArrayList<>();
+        for (int i = fromIp; i < toIp; i++) {
+            hits.add(new Hit(APP, URI, "10.0." + (i / 250) + "." + (i % 250), timestamp));
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.ewm.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Планы запросов статистики на схеме из миграций Flyway: hits и hit_rollups читаются
+ * только по покрывающим индексам из V2, без обращения к таблице.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@JdbcTest(properties = {
+        // Без application.yaml: его spring.config.import требует config-server
+        "spring.config.name=stats-query-plan-test",
+        "spring.cloud.config.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// VACUUM не выполняется внутри транзакции
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatsQueryPlanTest {
+
+    private static final int HITS = 300_000;
+    private static final int URIS = 100;
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    private static final Pattern HEAP_FETCHES = Pattern.compile("Heap Fetches: (\\d+)");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("hits", HITS)
+                .addValue("uris", URIS);
+
+        jdbcTemplate.update("INSERT INTO apps (app) VALUES ('ewm-main-service')", params);
+        jdbcTemplate.update("INSERT INTO uris (uri) SELECT '/events/' || n FROM generate_series(1, :uris) AS n",
+                params);
+        // Около 28 дней hits: секций нет, всё попадает в hits_default
+        jdbcTemplate.update("INSERT INTO hits (id, app_id, uri_id, ip, timestamp) " +
+                "SELECT n, 1, 1 + n % :uris, CAST('10.0.' || (n % 40) || '.' || (n % 250) AS inet), " +
+                "TIMESTAMP '2024-03-01 00:00:00' + n * INTERVAL '8 seconds' " +
+                "FROM generate_series(1, :hits) AS n", params);
+        jdbcTemplate.update("INSERT INTO hit_rollups (granularity, app, uri, bucket_start, hits) " +
+                "SELECT g.granularity, 'ewm-main-service', '/events/' || u, b, 1 " +
+                "FROM (VALUES ('HOUR', INTERVAL '1 hour'), ('DAY', INTERVAL '1 day')) AS g (granularity, step) " +
+                "CROSS JOIN generate_series(1, :uris) AS u " +
+                "CROSS JOIN LATERAL generate_series(TIMESTAMP '2024-03-01 00:00:00', " +
+                "TIMESTAMP '2024-03-29 00:00:00', g.step) AS b", params);
+
+        // Index-only scan без обращения к таблице возможен только для страниц, отмеченных в карте видимости
+        jdbcTemplate.getJdbcTemplate().execute("VACUUM ANALYZE hits");
+        jdbcTemplate.getJdbcTemplate().execute("VACUUM ANALYZE hit_rollups");
+    }
+
+    @Test
+    void uniqueStatsWithoutUrisUseTimestampIndex() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = new StatsRepository(jdbcTemplate)
+                .uniqueStatsQuery(FROM.plusDays(9), FROM.plusDays(10), null, params);
+
+        List<String> plan = this.explain(sql, params);
+
+        assertIndexOnly(plan, "hits_default");
+    }
+
+    @Test
+    void uniqueStatsWithUrisUseUriIndex() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = new StatsRepository(jdbcTemplate)
+                .uniqueStatsQuery(FROM, FROM.plusDays(28), List.of("/events/1", "/events/2", "/events/3"), params);
+
+        List<String> plan = this.explain(sql, params);
+
+        assertIndexOnly(plan, "hits_default");
+    }
+
+    @Test
+    void rollupStatsWithoutUrisUseBucketIndex() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        // Часы до конца первых суток, затем дни и хвост по сырым hits
+        String sql = new HitRollupRepository(jdbcTemplate)
+                .statsQuery(FROM.plusDays(4).plusHours(3), FROM.plusDays(19), null, params);
+
+        List<String> plan = this.explain(sql, params);
+
+        assertIndexOnly(plan, "hit_rollups");
+        assertIndexOnly(plan, "hits_default");
+    }
+
+    private List<String> explain(String sql, MapSqlParameterSource params) {
+        return jdbcTemplate.queryForList("EXPLAIN (ANALYZE, COSTS OFF) " + sql, params, String.class);
+    }
+
+    private static void assertIndexOnly(List<String> plan, String table) {
+        String text = String.join("\n", plan);
+        List<String> scans = plan.stream()
+                .filter(line -> line.matches(".*Scan.* on " + table + "\\b.*"))
+                .toList();
+
+        assertThat(scans).as("чтения %s в плане:%n%s", table, text)
+                .isNotEmpty()
+                .allMatch(line -> line.contains("Index Only Scan"));
+
+        Matcher matcher = HEAP_FETCHES.matcher(text);
+        while (matcher.find()) {
+            assertThat(Long.parseLong(matcher.group(1))).as("обращения к таблице в плане:%n%s", text).isZero();
+        }
+    }
+}
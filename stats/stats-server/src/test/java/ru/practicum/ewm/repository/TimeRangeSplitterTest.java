@@ -0,0 +1,104 @@
+package ru.practicum.ewm.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.entity.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.ewm.entity.RollupGranularity.*;
+
+class TimeRangeSplitterTest {
+
+    @Test
+    void alignedRangeIsOneDaySegment() {
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 4, 0, 0);
+
+        assertThat(TimeRangeSplitter.split(from, to, MINUTE))
+                .containsExactly(new TimeRangeSplitter.Segment(DAY, from, to));
+    }
+
+    @Test
+    void unalignedRangeIsSplitFromCoarseToFine() {
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 10, 15, 30);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 2, 2, 45);
+
+        assertThat(TimeRangeSplitter.split(from, to, MINUTE)).containsExactly(
+                new TimeRangeSplitter.Segment(null, from, LocalDateTime.of(2024, 3, 1, 10, 16)),
+                new TimeRangeSplitter.Segment(MINUTE, LocalDateTime.of(2024, 3, 1, 10, 16),
+                        LocalDateTime.of(2024, 3, 1, 11, 0)),
+                new TimeRangeSplitter.Segment(HOUR, LocalDateTime.of(2024, 3, 1, 11, 0),
+                        LocalDateTime.of(2024, 3, 2, 2, 0)),
+                new TimeRangeSplitter.Segment(MINUTE, LocalDateTime.of(2024, 3, 2, 2, 0), to));
+    }
+
+    @Test
+    void finestGranularityLimitsRollupSegments() {
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 10, 15);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 3, 12, 30);
+
+        List<TimeRangeSplitter.Segment> segments = TimeRangeSplitter.split(from, to, HOUR);
+
+        assertThat(segments).extracting(TimeRangeSplitter.Segment::granularity)
+                .containsExactly(null, HOUR, DAY, HOUR, null);
+        assertCovers(segments, from, to);
+    }
+
+    @Test
+    void longRangeUsesMonthSegments() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 15, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 5, 3, 0, 0);
+
+        assertThat(TimeRangeSplitter.split(from, to, HOUR)).containsExactly(
+                new TimeRangeSplitter.Segment(HOUR, from, LocalDateTime.of(2024, 1, 16, 0, 0)),
+                new TimeRangeSplitter.Segment(DAY, LocalDateTime.of(2024, 1, 16, 0, 0),
+                        LocalDateTime.of(2024, 2, 1, 0, 0)),
+                new TimeRangeSplitter.Segment(MONTH, LocalDateTime.of(2024, 2, 1, 0, 0),
+                        LocalDateTime.of(2024, 5, 1, 0, 0)),
+                new TimeRangeSplitter.Segment(DAY, LocalDateTime.of(2024, 5, 1, 0, 0), to));
+    }
+
+    @Test
+    void segmentsAreContiguousAndAligned() {
+        LocalDateTime from = LocalDateTime.of(2023, 12, 31, 23, 59, 59, 500_000_000);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 5, 0, 0, 1);
+
+        List<TimeRangeSplitter.Segment> segments = TimeRangeSplitter.split(from, to, MINUTE);
+
+        assertCovers(segments, from, to);
+        for (TimeRangeSplitter.Segment segment : segments) {
+            RollupGranularity granularity = segment.granularity();
+            if (granularity != null) {
+                assertThat(granularity.floor(segment.from())).isEqualTo(segment.from());
+                assertThat(granularity.floor(segment.to())).isEqualTo(segment.to());
+            }
+        }
+    }
+
+    @Test
+    void emptyRangeHasNoSegments() {
+        LocalDateTime moment = LocalDateTime.of(2024, 3, 1, 10, 15);
+
+        assertThat(TimeRangeSplitter.split(moment, moment, MINUTE)).isEmpty();
+        assertThat(TimeRangeSplitter.split(moment, moment.minusHours(1), MINUTE)).isEmpty();
+    }
+
+    @Test
+    void rangeInsideOneMinuteIsRaw() {
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 10, 15, 10);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 1, 10, 15, 50);
+
+        assertThat(TimeRangeSplitter.split(from, to, MINUTE))
+                .containsExactly(new TimeRangeSplitter.Segment(null, from, to));
+    }
+
+    private static void assertCovers(List<TimeRangeSplitter.Segment> segments, LocalDateTime from, LocalDateTime to) {
+        assertThat(segments.getFirst().from()).isEqualTo(from);
+        assertThat(segments.getLast().to()).isEqualTo(to);
+        for (int i = 1; i < segments.size(); i++) {
+            assertThat(segments.get(i).from()).isEqualTo(segments.get(i - 1).to());
+        }
+    }
+}